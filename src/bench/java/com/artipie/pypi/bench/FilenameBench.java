@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.bench;
+
+import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.meta.DistFilename;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of distribution file name parsing and project name normalization: regular
+ * expressions previously used by {@code ValidFilename} and {@link NormalizedProjectName}
+ * against {@link DistFilename} and current {@link NormalizedProjectName.Simple}.
+ * @since 1.0
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilenameBench {
+
+    /**
+     * Previous sdist name pattern.
+     */
+    private static final Pattern ARCHIVE =
+        Pattern.compile("(?<name>.*)-(?<version>[0-9a-z.]+?)\\.([a-zA-Z.]+)");
+
+    /**
+     * Previous wheel name pattern.
+     */
+    private static final Pattern WHEEL =
+        Pattern.compile("(?<name>.*?)-(?<version>[0-9a-z.]+)(-\\d+)?-((py\\d.?)+)-(.*)-(.*).whl");
+
+    /**
+     * Previous name verification pattern.
+     */
+    private static final Pattern VERIFY = Pattern.compile("[A-Za-z0-9.\\-_]+");
+
+    /**
+     * File names.
+     */
+    private static final String[] FILES = {
+        "artipie_sample-0.2-py3-none-any.whl",
+        "ABtests-0.0.2.1-py2.py3-none-any.whl",
+        "very-difficult-project-1.0a2-py3-any-none.whl",
+        "artipie-sample-0.2.tar.gz",
+        "alarmtime-0.1.5.tar.gz",
+        "Another_project-123.93.zip",
+    };
+
+    @Benchmark
+    public void regexParse(final Blackhole bhole) {
+        for (final String file : FilenameBench.FILES) {
+            bhole.consume(
+                Stream.of(FilenameBench.WHEEL.matcher(file), FilenameBench.ARCHIVE.matcher(file))
+                    .filter(Matcher::matches).findFirst()
+                    .map(matcher -> FilenameBench.regexNormalize(matcher.group("name")))
+            );
+        }
+    }
+
+    @Benchmark
+    public void handParse(final Blackhole bhole) {
+        for (final String file : FilenameBench.FILES) {
+            final DistFilename dist = new DistFilename(file);
+            if (dist.valid()) {
+                bhole.consume(new NormalizedProjectName.Simple(dist.name()).value());
+            }
+        }
+    }
+
+    @Benchmark
+    public void regexNormalize(final Blackhole bhole) {
+        for (final String file : FilenameBench.FILES) {
+            bhole.consume(FilenameBench.regexNormalize(file.substring(0, file.indexOf('-'))));
+        }
+    }
+
+    @Benchmark
+    public void loopNormalize(final Blackhole bhole) {
+        for (final String file : FilenameBench.FILES) {
+            bhole.consume(
+                new NormalizedProjectName.Simple(file.substring(0, file.indexOf('-'))).value()
+            );
+        }
+    }
+
+    /**
+     * Previous name normalization.
+     * @param name Name
+     * @return Normalized name
+     */
+    private static String regexNormalize(final String name) {
+        if (FilenameBench.VERIFY.matcher(name).matches()) {
+            return name.replaceAll("[-_.]+", "-").toLowerCase(Locale.US);
+        }
+        throw new IllegalArgumentException("Invalid name");
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.bench;
+
+import com.artipie.pypi.meta.Version;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the latest version selection from a corpus of real world version strings:
+ * string order previously used by {@code SearchSlice} against {@link Version} order.
+ * @since 1.0
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionBench {
+
+    /**
+     * Versions of popular projects.
+     */
+    private static final List<String> CORPUS = Arrays.asList(
+        "1.26.4", "1.26.0rc1", "2.0.0b1", "2.0.0", "2.0.1", "1.9.3", "1.10.0", "1.10.1",
+        "2.31.0", "2.28.2", "2.32.0.dev0", "3.0.0a1", "65.5.0", "67.8.0", "68.0.0.post1",
+        "0.24.2", "1.0.0rc2", "2023.7.22", "2022.12.7", "1!2.0", "4.66.1", "4.65.2",
+        "0.41.2", "23.1", "23.2.1", "22.3.1", "3.12.0b4", "3.12.0", "1.5.3+cpu", "2.1.0+cu118",
+        "6.0.1", "5.4.1", "0.9.0.dev20230815", "0.10.0", "1.1.0.post0", "2.8.2"
+    );
+
+    @Benchmark
+    public String stringLatest() {
+        return VersionBench.CORPUS.stream().max(Comparator.naturalOrder()).get();
+    }
+
+    @Benchmark
+    public Version versionLatest() {
+        return VersionBench.CORPUS.stream().map(Version::new)
+            .max(Comparator.naturalOrder()).get();
+    }
+}
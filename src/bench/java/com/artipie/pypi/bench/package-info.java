@@ -0,0 +1,11 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+
+/**
+ * Performance benchmarks.
+ *
+ * @since 1.0
+ */
+package com.artipie.pypi.bench;
@@ -4,9 +4,6 @@
  */
 package com.artipie.pypi;
 
-import java.util.Locale;
-import java.util.regex.Pattern;
-
 /**
  * Normalized python project name from uploading filename.
  * <p>
@@ -31,16 +28,12 @@ public interface NormalizedProjectName {
     /**
      * Simple {@link NormalizedProjectName} implementation: normalise given name
      * by replacing ., -, or _ with a single - and making all characters lowecase. Name can contain
-     * ASCII alphabet, ASCII numbers, ., -, and _.
+     * ASCII alphabet, ASCII numbers, ., -, and _. Name is verified and normalized in one pass
+     * over its characters.
      * @since 0.6
      */
     final class Simple implements NormalizedProjectName {
 
-        /**
-         * Pattern to verify the name.
-         */
-        private static final Pattern VERIFY = Pattern.compile("[A-Za-z0-9.\\-_]+");
-
         /**
          * Name to normalize.
          */
@@ -56,12 +49,46 @@ public interface NormalizedProjectName {
 
         @Override
         public String value() {
-            if (Simple.VERIFY.matcher(this.name).matches()) {
-                return this.name.replaceAll("[-_.]+", "-").toLowerCase(Locale.US);
+            final StringBuilder res = new StringBuilder(this.name.length());
+            boolean sep = false;
+            for (int idx = 0; idx < this.name.length(); idx = idx + 1) {
+                final char chr = this.name.charAt(idx);
+                if (chr == '-' || chr == '_' || chr == '.') {
+                    sep = true;
+                } else if (chr >= 'a' && chr <= 'z' || chr >= '0' && chr <= '9') {
+                    Simple.append(res, sep, chr);
+                    sep = false;
+                } else if (chr >= 'A' && chr <= 'Z') {
+                    Simple.append(res, sep, Character.toLowerCase(chr));
+                    sep = false;
+                } else {
+                    throw new IllegalArgumentException(
+                        "Invalid name: python project should match [A-Za-z0-9.-_]+"
+                    );
+                }
+            }
+            if (sep) {
+                res.append('-');
+            }
+            if (this.name.isEmpty()) {
+                throw new IllegalArgumentException(
+                    "Invalid name: python project should match [A-Za-z0-9.-_]+"
+                );
+            }
+            return res.toString();
+        }
+
+        /**
+         * Append name character, preceded by separator if there were separators before it.
+         * @param res Normalized name
+         * @param sep Were there separators before the character
+         * @param chr Character
+         */
+        private static void append(final StringBuilder res, final boolean sep, final char chr) {
+            if (sep) {
+                res.append('-');
             }
-            throw new IllegalArgumentException(
-                "Invalid name: python project should match [A-Za-z0-9.-_]+"
-            );
+            res.append(chr);
         }
     }
 
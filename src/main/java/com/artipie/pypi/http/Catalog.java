@@ -0,0 +1,471 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.meta.DistFilename;
+import com.artipie.pypi.meta.FileRecord;
+import com.artipie.pypi.meta.FileRecords;
+import com.artipie.pypi.meta.MetadataHeaders;
+import com.artipie.pypi.meta.PackageInfo;
+import com.artipie.pypi.meta.Projects;
+import com.artipie.pypi.meta.Version;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory catalog of repository root projects for XML-RPC read methods: project display
+ * names and release files of the projects by version. Display names are read from
+ * {@link Projects} registry on the first use, release files of a project are listed on the
+ * first lookup of the project, uploaded files are added to the catalog by
+ * {@link WheelSlice}. Catalog keeps file keys only: release metadata is read for the
+ * requested release, from the core metadata file of a wheel if there is one, and file
+ * records are read only if they are stored, catalog lookups do not calculate records of the
+ * files uploaded before records were introduced, see {@link FileRecords}, such files are
+ * listed without digests. Projects and names are replaced on change, so lookups are not
+ * locked, failed reads are repeated on the next lookup, projects without files are not kept.
+ * @since 1.0
+ */
+final class Catalog {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Project display names by normalized name, are read on the first use.
+     */
+    private final AtomicReference<CompletableFuture<NavigableMap<String, String>>> names;
+
+    /**
+     * Release files of the projects by normalized name, are listed on the first lookup of
+     * the project.
+     */
+    private final ConcurrentMap<String, CompletableFuture<NavigableMap<Version, List<Key>>>>
+        projects;
+
+    /**
+     * Metadata parsers.
+     */
+    private final MetadataParsers parsers;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    Catalog(final Storage storage) {
+        this(storage, new MetadataParsers());
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param parsers Metadata parsers
+     */
+    Catalog(final Storage storage, final MetadataParsers parsers) {
+        this.storage = storage;
+        this.parsers = parsers;
+        this.names = new AtomicReference<>();
+        this.projects = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Project names.
+     * @return Completion action with display names ordered by normalized name
+     */
+    CompletionStage<List<String>> names() {
+        CompletableFuture<NavigableMap<String, String>> res = this.names.get();
+        if (res == null || res.isCompletedExceptionally()) {
+            final CompletableFuture<NavigableMap<String, String>> read =
+                new Projects(this.storage, Key.ROOT).displayNames().toCompletableFuture();
+            if (this.names.compareAndSet(res, read)) {
+                res = read;
+            } else {
+                res = this.names.get();
+            }
+        }
+        return res.thenApply(all -> new ArrayList<>(all.values()));
+    }
+
+    /**
+     * Project release versions.
+     * @param name Project name
+     * @return Completion action with versions, latest first, empty if there is no such project
+     */
+    CompletionStage<List<String>> versions(final String name) {
+        return this.files(name).thenApply(
+            releases -> releases.values().stream().map(Catalog::version)
+                .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Project release.
+     * @param name Project name
+     * @param version Release version
+     * @return Completion action with release if there is one
+     */
+    CompletionStage<Optional<Release>> release(final String name, final String version) {
+        return this.files(name).thenCompose(
+            releases -> {
+                final List<Key> files = releases.get(new Version(version));
+                final CompletionStage<Optional<Release>> res;
+                if (files == null) {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                } else {
+                    res = this.headers(files).thenCompose(
+                        headers -> this.dists(files).thenApply(
+                            dists -> Optional.of(
+                                new Release(Catalog.version(files), headers, dists)
+                            )
+                        )
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Add uploaded distribution file to the catalog, the file is added to the project if the
+     * project was listed already.
+     * @param file Distribution file key
+     * @param display Project display name
+     */
+    void add(final Key file, final String display) {
+        final String project = file.parts().get(0);
+        this.names.getAndUpdate(
+            all -> Optional.ofNullable(all).map(
+                read -> read.thenApply(
+                    before -> {
+                        final NavigableMap<String, String> after = new TreeMap<>(before);
+                        after.put(project, display);
+                        return after;
+                    }
+                )
+            ).orElse(null)
+        );
+        this.projects.computeIfPresent(
+            project,
+            (name, listed) -> listed.thenApply(
+                before -> {
+                    final NavigableMap<Version, List<Key>> after = new TreeMap<>(before);
+                    final List<Key> files = new ArrayList<>(
+                        after.getOrDefault(Catalog.release(file), Collections.emptyList())
+                    );
+                    if (!files.contains(file)) {
+                        files.add(file);
+                        files.sort(Comparator.comparing(Key::string));
+                    }
+                    after.put(Catalog.release(file), files);
+                    return after;
+                }
+            )
+        );
+    }
+
+    /**
+     * Remove distribution file from the catalog, project files and names are read from
+     * storage again on the next lookup.
+     * @param file Distribution file key
+     */
+    void remove(final Key file) {
+        this.projects.remove(file.parts().get(0));
+        this.names.set(null);
+    }
+
+    /**
+     * Distribution files of the project grouped by release.
+     * @param name Project name
+     * @return Completion action with files ordered by name by version, latest first
+     */
+    private CompletionStage<NavigableMap<Version, List<Key>>> files(final String name) {
+        String project;
+        try {
+            project = new NormalizedProjectName.Simple(name).value();
+        } catch (final IllegalArgumentException ex) {
+            project = "";
+        }
+        final CompletionStage<NavigableMap<Version, List<Key>>> res;
+        if (project.isEmpty()) {
+            res = CompletableFuture.completedFuture(Collections.emptyNavigableMap());
+        } else {
+            final String dir = project;
+            final CompletableFuture<NavigableMap<Version, List<Key>>> files =
+                this.projects.compute(
+                    dir,
+                    (key, listed) -> {
+                        final CompletableFuture<NavigableMap<Version, List<Key>>> found;
+                        if (listed == null || listed.isCompletedExceptionally()) {
+                            found = this.list(key).toCompletableFuture();
+                        } else {
+                            found = listed;
+                        }
+                        return found;
+                    }
+                );
+            res = files.whenComplete(
+                (releases, err) -> {
+                    if (err == null && releases.isEmpty()) {
+                        this.projects.remove(dir, files);
+                    }
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * List distribution files of the project.
+     * @param project Normalized project name
+     * @return Completion action with files ordered by name by version, latest first
+     */
+    private CompletionStage<NavigableMap<Version, List<Key>>> list(final String project) {
+        return this.storage.list(new Key.From(project)).thenApply(
+            keys -> {
+                final NavigableMap<Version, List<Key>> res =
+                    new TreeMap<>(Comparator.reverseOrder());
+                keys.stream().filter(
+                    key -> key.parts().size() == 2 && project.equals(key.parts().get(0))
+                        && new DistFilename(new KeyLastPart(key).get()).valid()
+                ).sorted(Comparator.comparing(Key::string)).forEach(
+                    key -> res.computeIfAbsent(
+                        Catalog.release(key), version -> new ArrayList<>(1)
+                    ).add(key)
+                );
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Read release metadata from a wheel, if there is one, or from the first release file.
+     * @param files Release files
+     * @return Completion action with metadata headers
+     */
+    private CompletionStage<MetadataHeaders> headers(final List<Key> files) {
+        return MetadataStream.stored(
+            this.storage,
+            files.stream().filter(key -> key.string().endsWith(".whl"))
+                .findFirst().orElse(files.get(0)),
+            this.parsers
+        ).thenApply(Catalog::headers);
+    }
+
+    /**
+     * Read release files one after another: stored records are read, size of the files
+     * without records is read from storage metadata, size is -1 if it is unknown.
+     * @param files Release files
+     * @return Completion action with distribution files
+     */
+    private CompletionStage<List<Dist>> dists(final List<Key> files) {
+        CompletionStage<List<Dist>> res = CompletableFuture.completedFuture(
+            new ArrayList<>(files.size())
+        );
+        for (final Key file : files) {
+            res = res.thenCompose(
+                dists -> new FileRecords(this.storage).stored(file).thenCompose(
+                    rec -> {
+                        final CompletionStage<Long> size;
+                        if (rec.isPresent()) {
+                            size = CompletableFuture.completedFuture(rec.get().size());
+                        } else {
+                            size = this.storage.metadata(file).thenApply(
+                                meta -> meta.read(Meta.OP_SIZE).map(Long::longValue).orElse(-1L)
+                            );
+                        }
+                        return size.thenApply(bytes -> new Dist(file, rec, bytes));
+                    }
+                ).thenApply(
+                    dist -> {
+                        dists.add(dist);
+                        return dists;
+                    }
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Release of the distribution file.
+     * @param file Distribution file key
+     * @return Version
+     */
+    private static Version release(final Key file) {
+        return new Version(new DistFilename(new KeyLastPart(file).get()).version());
+    }
+
+    /**
+     * Release version from the release file name.
+     * @param files Release files
+     * @return Version
+     */
+    private static String version(final List<Key> files) {
+        return new DistFilename(new KeyLastPart(files.get(0)).get()).version();
+    }
+
+    /**
+     * Release metadata headers of the package.
+     * @param info Package info
+     * @return Headers
+     */
+    private static MetadataHeaders headers(final PackageInfo info) {
+        final MetadataHeaders res;
+        if (info instanceof PackageInfo.FromMetadata) {
+            res = ((PackageInfo.FromMetadata) info).headers();
+        } else {
+            final StringBuilder meta = new StringBuilder()
+                .append("Name: ").append(info.name()).append('\n')
+                .append("Version: ").append(info.version()).append('\n')
+                .append("Summary: ").append(info.summary()).append('\n');
+            info.requiresPython().ifPresent(
+                spec -> meta.append("Requires-Python: ").append(spec).append('\n')
+            );
+            res = new MetadataHeaders(meta.toString());
+        }
+        return res;
+    }
+
+    /**
+     * Project release.
+     * @since 1.0
+     */
+    static final class Release {
+
+        /**
+         * Version.
+         */
+        private final String version;
+
+        /**
+         * Release metadata.
+         */
+        private final MetadataHeaders headers;
+
+        /**
+         * Distribution files ordered by file name.
+         */
+        private final List<Dist> files;
+
+        /**
+         * Ctor.
+         * @param version Version
+         * @param headers Release metadata
+         * @param files Distribution files
+         */
+        Release(final String version, final MetadataHeaders headers, final List<Dist> files) {
+            this.version = version;
+            this.headers = headers;
+            this.files = files;
+        }
+
+        /**
+         * Release version.
+         * @return Version
+         */
+        String version() {
+            return this.version;
+        }
+
+        /**
+         * Release metadata.
+         * @return Metadata headers
+         */
+        MetadataHeaders headers() {
+            return this.headers;
+        }
+
+        /**
+         * Release files.
+         * @return Distribution files ordered by file name
+         */
+        List<Dist> files() {
+            return Collections.unmodifiableList(this.files);
+        }
+    }
+
+    /**
+     * Distribution file.
+     * @since 1.0
+     */
+    static final class Dist {
+
+        /**
+         * File key.
+         */
+        private final Key key;
+
+        /**
+         * Stored file record.
+         */
+        private final Optional<FileRecord> record;
+
+        /**
+         * File size.
+         */
+        private final long size;
+
+        /**
+         * Ctor.
+         * @param key File key
+         * @param record Stored file record
+         * @param size File size in bytes
+         */
+        Dist(final Key key, final Optional<FileRecord> record, final long size) {
+            this.key = key;
+            this.record = record;
+            this.size = size;
+        }
+
+        /**
+         * File key.
+         * @return Key
+         */
+        Key key() {
+            return this.key;
+        }
+
+        /**
+         * File name.
+         * @return Name
+         */
+        String filename() {
+            return new KeyLastPart(this.key).get();
+        }
+
+        /**
+         * Stored file record.
+         * @return Record if it is stored
+         */
+        Optional<FileRecord> record() {
+            return this.record;
+        }
+
+        /**
+         * File size.
+         * @return Size in bytes
+         */
+        long size() {
+            return this.size;
+        }
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.pypi.meta.MetaKey;
+import com.jcabi.log.Logger;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import javax.json.Json;
+import javax.json.JsonObject;
+
+/**
+ * Repository changelog: append-only log of repository changes numbered with increasing
+ * serials, mirrors read the changes since the last serial they have seen instead of crawling
+ * the whole repository. Each event is kept in storage with
+ * {@code .pypi/.changelog/<range>/<serial>} key, where range is serial divided by
+ * {@link #RANGE}, and is never changed after it is written. Serials are zero padded, so that
+ * keys are listed in order, and {@link #since(long)} lists only the ranges from the requested
+ * serial to the last one. The last serial is kept in memory and in
+ * {@code .pypi/.changelog/last} key, it is read on the first use, or on the next use if the
+ * read fails, and events saved after it, if any, are found by their keys. Events are appended
+ * one after another, so they are saved in serial order, and are read from storage in batches.
+ * Serials are assigned by this changelog, so the repository is expected to be written by one
+ * instance.
+ * @since 1.0
+ */
+final class Changelog {
+
+    /**
+     * Changelog storage directory.
+     */
+    private static final Key DIR = new MetaKey(new Key.From(".changelog"));
+
+    /**
+     * Key of the last serial.
+     */
+    private static final Key LAST = new Key.From(Changelog.DIR, "last");
+
+    /**
+     * Number of events in one storage directory.
+     */
+    private static final long RANGE = 1000L;
+
+    /**
+     * Default number of events read from storage at once.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Default limit of events returned by one {@link #since(long)} call.
+     */
+    private static final int LIMIT = 50_000;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Number of events read from storage at once.
+     */
+    private final int batch;
+
+    /**
+     * Limit of events returned by one {@link #since(long)} call.
+     */
+    private final int limit;
+
+    /**
+     * The last saved serial.
+     */
+    private final AtomicLong last;
+
+    /**
+     * The last serial read from storage, is started on the first use.
+     */
+    private final AtomicReference<CompletableFuture<Void>> load;
+
+    /**
+     * The last append, next event is appended when it completes.
+     */
+    private final AtomicReference<CompletableFuture<Long>> tail;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    Changelog(final Storage storage) {
+        this(storage, Changelog.BATCH, Changelog.LIMIT);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param batch Number of events read from storage at once
+     * @param limit Limit of events returned by one {@link #since(long)} call
+     */
+    Changelog(final Storage storage, final int batch, final int limit) {
+        this.storage = storage;
+        this.batch = batch;
+        this.limit = limit;
+        this.last = new AtomicLong();
+        this.load = new AtomicReference<>();
+        this.tail = new AtomicReference<>(CompletableFuture.completedFuture(0L));
+    }
+
+    /**
+     * Append event to the changelog.
+     * @param name Project name
+     * @param version Release version
+     * @param action Action description, for example {@code add source file <file name>}
+     * @return Completion action with event serial, completes when event and the last serial
+     *  are saved
+     */
+    CompletionStage<Long> append(final String name, final String version, final String action) {
+        final CompletableFuture<Long> res = new CompletableFuture<>();
+        this.tail.getAndSet(res).handle((serial, err) -> null).thenCompose(
+            nothing -> this.loaded()
+        ).thenCompose(
+            nothing -> {
+                final Event event = new Event(
+                    this.last.get() + 1, name, version, Instant.now().getEpochSecond(), action
+                );
+                return this.storage.save(
+                    Changelog.key(event.serial), new Content.From(event.bytes())
+                ).handle(
+                    (saved, err) -> {
+                        if (err != null) {
+                            throw new IllegalStateException(
+                                String.format("Failed to save changelog event %d", event.serial),
+                                err
+                            );
+                        }
+                        this.last.set(event.serial);
+                        return event.serial;
+                    }
+                ).thenCompose(
+                    serial -> this.storage.save(
+                        Changelog.LAST,
+                        new Content.From(String.valueOf(serial).getBytes(StandardCharsets.UTF_8))
+                    ).thenApply(saved -> serial)
+                );
+            }
+        ).whenComplete(
+            (serial, err) -> {
+                if (err == null) {
+                    res.complete(serial);
+                } else {
+                    res.completeExceptionally(err);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * The last serial.
+     * @return Completion action with the last serial, zero if changelog is empty
+     */
+    CompletionStage<Long> last() {
+        return this.loaded().thenApply(nothing -> this.last.get());
+    }
+
+    /**
+     * Events after the serial, up to the limit. Only the ranges from the serial to the last
+     * serial are listed, events are read one batch after another.
+     * @param serial Serial
+     * @return Completion action with events in serial order
+     */
+    CompletionStage<List<Event>> since(final long serial) {
+        return this.last().thenCompose(
+            last -> this.serials(
+                Math.max(serial, 0L) / Changelog.RANGE, serial, last, new ArrayList<>(0)
+            )
+        ).thenCompose(
+            serials -> {
+                final List<Event> res = new ArrayList<>(serials.size());
+                CompletionStage<Void> read = CompletableFuture.allOf();
+                for (int start = 0; start < serials.size(); start = start + this.batch) {
+                    final List<Long> part = serials.subList(
+                        start, Math.min(start + this.batch, serials.size())
+                    );
+                    read = read.thenCompose(nothing -> this.read(part)).thenAccept(res::addAll);
+                }
+                return read.thenApply(nothing -> res);
+            }
+        );
+    }
+
+    /**
+     * Find the last serial in storage once on the first call.
+     * @return Completion action
+     */
+    private CompletionStage<Void> loaded() {
+        CompletionStage<Void> res = this.load.get();
+        if (res == null) {
+            final CompletableFuture<Void> started = new CompletableFuture<>();
+            if (this.load.compareAndSet(null, started)) {
+                res = started;
+                this.stored().thenCompose(this::following).thenAccept(this.last::set)
+                    .whenComplete(
+                        (nothing, err) -> {
+                            if (err == null) {
+                                started.complete(null);
+                            } else {
+                                Logger.error(
+                                    this, "Failed to read changelog: %[exception]s", err
+                                );
+                                this.load.compareAndSet(started, null);
+                                started.completeExceptionally(err);
+                            }
+                        }
+                    );
+            } else {
+                res = this.loaded();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Read stored last serial.
+     * @return Completion action with stored serial, zero if it is not stored
+     */
+    private CompletionStage<Long> stored() {
+        return this.storage.exists(Changelog.LAST).thenCompose(
+            exists -> {
+                final CompletionStage<Long> res;
+                if (exists) {
+                    res = this.storage.value(Changelog.LAST)
+                        .thenCompose(val -> new PublisherAs(val).string(StandardCharsets.UTF_8))
+                        .thenApply(val -> Long.parseLong(val.trim()));
+                } else {
+                    res = CompletableFuture.completedFuture(0L);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Find serial of the last event saved after the serial, events are saved before the last
+     * serial, so the stored last serial may be behind saved events.
+     * @param serial Serial
+     * @return Completion action with the last saved serial
+     */
+    private CompletionStage<Long> following(final long serial) {
+        return this.storage.exists(Changelog.key(serial + 1)).thenCompose(
+            exists -> {
+                final CompletionStage<Long> res;
+                if (exists) {
+                    res = this.following(serial + 1);
+                } else {
+                    res = CompletableFuture.completedFuture(serial);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * List serials after the serial up to the last serial and the limit, range after range.
+     * @param range Range to list
+     * @param serial Serial to list serials after
+     * @param last The last serial
+     * @param found Serials found in previous ranges
+     * @return Completion action with serials in order
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<List<Long>> serials(final long range, final long serial,
+        final long last, final List<Long> found) {
+        final CompletionStage<List<Long>> res;
+        if (range > last / Changelog.RANGE || found.size() >= this.limit) {
+            res = CompletableFuture.completedFuture(found);
+        } else {
+            res = this.storage.list(Changelog.range(range)).thenCompose(
+                keys -> {
+                    keys.stream().map(key -> new KeyLastPart(key).get())
+                        .filter(Changelog::numeric).map(Long::parseLong)
+                        .filter(num -> num > serial && num <= last)
+                        .sorted()
+                        .limit(this.limit - found.size())
+                        .forEach(found::add);
+                    return this.serials(range + 1, serial, last, found);
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Read events from storage at once.
+     * @param serials Event serials
+     * @return Completion action with events in serials order
+     */
+    private CompletionStage<List<Event>> read(final List<Long> serials) {
+        final List<CompletableFuture<Event>> events = serials.stream().map(
+            serial -> this.storage.value(Changelog.key(serial))
+                .thenCompose(val -> new PublisherAs(val).string(StandardCharsets.UTF_8))
+                .thenApply(
+                    json -> new Event(
+                        serial, Json.createReader(new StringReader(json)).readObject()
+                    )
+                ).toCompletableFuture()
+        ).collect(Collectors.toList());
+        return CompletableFuture.allOf(events.toArray(new CompletableFuture<?>[0])).thenApply(
+            nothing -> events.stream().map(CompletableFuture::join).collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Is the key part a serial?
+     * @param part Key part
+     * @return True if part consists of up to 19 digits
+     */
+    private static boolean numeric(final String part) {
+        boolean res = !part.isEmpty() && part.length() <= 19;
+        for (int idx = 0; idx < part.length() && res; idx = idx + 1) {
+            res = Character.isDigit(part.charAt(idx));
+        }
+        return res;
+    }
+
+    /**
+     * Storage key of the event, serials are zero padded so that keys are listed in order.
+     * @param serial Event serial
+     * @return Key
+     */
+    private static Key key(final long serial) {
+        return new Key.From(
+            Changelog.range(serial / Changelog.RANGE), String.format("%019d", serial)
+        );
+    }
+
+    /**
+     * Storage directory of the events range.
+     * @param range Range
+     * @return Key
+     */
+    private static Key range(final long range) {
+        return new Key.From(Changelog.DIR, String.format("%019d", range));
+    }
+
+    /**
+     * Changelog event.
+     * @since 1.0
+     */
+    static final class Event {
+
+        /**
+         * Serial.
+         */
+        private final long serial;
+
+        /**
+         * Project name.
+         */
+        private final String name;
+
+        /**
+         * Release version.
+         */
+        private final String version;
+
+        /**
+         * Event time in seconds since epoch.
+         */
+        private final long timestamp;
+
+        /**
+         * Action description.
+         */
+        private final String action;
+
+        /**
+         * Ctor.
+         * @param serial Serial
+         * @param name Project name
+         * @param version Release version
+         * @param timestamp Event time in seconds since epoch
+         * @param action Action description
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Event(final long serial, final String name, final String version,
+            final long timestamp, final String action) {
+            this.serial = serial;
+            this.name = name;
+            this.version = version;
+            this.timestamp = timestamp;
+            this.action = action;
+        }
+
+        /**
+         * Ctor.
+         * @param serial Serial
+         * @param json Event json
+         */
+        Event(final long serial, final JsonObject json) {
+            this(
+                serial, json.getString("name"), json.getString("version"),
+                json.getJsonNumber("timestamp").longValue(), json.getString("action")
+            );
+        }
+
+        /**
+         * Serial.
+         * @return Serial
+         */
+        long serial() {
+            return this.serial;
+        }
+
+        /**
+         * Project name.
+         * @return Name
+         */
+        String name() {
+            return this.name;
+        }
+
+        /**
+         * Release version.
+         * @return Version
+         */
+        String version() {
+            return this.version;
+        }
+
+        /**
+         * Event time.
+         * @return Seconds since epoch
+         */
+        long timestamp() {
+            return this.timestamp;
+        }
+
+        /**
+         * Action description.
+         * @return Action
+         */
+        String action() {
+            return this.action;
+        }
+
+        /**
+         * Event json bytes.
+         * @return Bytes
+         */
+        private byte[] bytes() {
+            return Json.createObjectBuilder()
+                .add("name", this.name)
+                .add("version", this.version)
+                .add("timestamp", this.timestamp)
+                .add("action", this.action)
+                .build().toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
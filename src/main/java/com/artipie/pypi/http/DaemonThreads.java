@@ -0,0 +1,44 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of named daemon threads for the adapter executors, so that the executors do not
+ * keep the application running.
+ * @since 1.0
+ */
+final class DaemonThreads implements ThreadFactory {
+
+    /**
+     * Thread name prefix.
+     */
+    private final String name;
+
+    /**
+     * Created threads count.
+     */
+    private final AtomicInteger count;
+
+    /**
+     * Ctor.
+     * @param name Thread name prefix
+     */
+    DaemonThreads(final String name) {
+        this.name = name;
+        this.count = new AtomicInteger();
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(
+            runnable, String.format("%s-%d", this.name, this.count.incrementAndGet())
+        );
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.rq.RqHeaders;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Request {@code If-None-Match} header, entity tags are compared weakly as
+ * <a href="https://www.rfc-editor.org/rfc/rfc7232#section-3.2">RFC-7232</a> requires.
+ * @since 1.0
+ */
+final class IfNoneMatch {
+
+    /**
+     * Request headers.
+     */
+    private final Iterable<Map.Entry<String, String>> headers;
+
+    /**
+     * Ctor.
+     * @param headers Request headers
+     */
+    IfNoneMatch(final Iterable<Map.Entry<String, String>> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * Does header match given entity tag?
+     * @param etag Entity tag of current representation
+     * @return True if client already has current representation
+     */
+    boolean matches(final String etag) {
+        return new RqHeaders(this.headers, "If-None-Match").stream()
+            .flatMap(value -> Stream.of(value.split(",")))
+            .map(String::trim)
+            .map(tag -> tag.replaceFirst("^W/", ""))
+            .anyMatch(tag -> "*".equals(tag) || etag.equals(tag));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of rendered index pages. Cache is bounded by pages size in bytes and
+ * evicts least valuable pages by W-TinyLFU policy, so hot projects are served without
+ * reading storage. Pages of the project are invalidated when project files are changed,
+ * pages being loaded at that moment are handed to their requesters but are not cached.
+ * Entries also expire after a while as other instances sharing the storage can change
+ * the project without notifying this cache.
+ * @since 1.0
+ */
+final class IndexCache {
+
+    /**
+     * Default cache size in bytes.
+     */
+    private static final long SIZE = 32L * 1024 * 1024;
+
+    /**
+     * Default time to live.
+     */
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    /**
+     * Pages cache.
+     */
+    private final AsyncCache<IndexCache.Id, IndexCache.Page> cache;
+
+    /**
+     * Ctor.
+     */
+    IndexCache() {
+        this(IndexCache.SIZE, IndexCache.TTL);
+    }
+
+    /**
+     * Ctor.
+     * @param bytes Max size of cached pages in bytes
+     * @param ttl Time to live of cached pages
+     */
+    IndexCache(final long bytes, final Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(bytes)
+            .<IndexCache.Id, IndexCache.Page>weigher((id, page) -> page.body().length)
+            .expireAfterWrite(ttl)
+            .buildAsync();
+    }
+
+    /**
+     * Get page from cache or load it.
+     * @param project Project key, {@link Key#ROOT} for repository root page
+     * @param prefix Repository path prefix
+     * @param format Page format
+     * @param encoding Page encoding
+     * @param load Page loader
+     * @return Completion action with the page
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    CompletionStage<IndexCache.Page> page(final Key project, final String prefix,
+        final IndexFormat format, final PageEncoding encoding,
+        final Supplier<CompletionStage<IndexCache.Page>> load) {
+        return this.cache.get(
+            new IndexCache.Id(project, prefix, format, encoding),
+            (id, exec) -> load.get().toCompletableFuture()
+        );
+    }
+
+    /**
+     * Invalidate all cached pages of the project.
+     * @param project Project key, {@link Key#ROOT} for repository root page
+     */
+    void invalidate(final Key project) {
+        this.cache.asMap().keySet().removeIf(id -> id.project.equals(project.string()));
+    }
+
+    /**
+     * Rendered page.
+     * @since 1.0
+     */
+    static final class Page {
+
+        /**
+         * Entity tag.
+         */
+        private final Optional<String> etag;
+
+        /**
+         * Page bytes.
+         */
+        private final byte[] bytes;
+
+        /**
+         * Ctor.
+         * @param etag Entity tag
+         * @param bytes Page bytes
+         */
+        Page(final Optional<String> etag, final byte[] bytes) {
+            this.etag = etag;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Entity tag of the page.
+         * @return Tag if page is tagged
+         */
+        Optional<String> tag() {
+            return this.etag;
+        }
+
+        /**
+         * Page bytes.
+         * @return Bytes
+         */
+        @SuppressWarnings("PMD.MethodReturnsInternalArray")
+        byte[] body() {
+            return this.bytes;
+        }
+    }
+
+    /**
+     * Cached page identifier.
+     * @since 1.0
+     */
+    private static final class Id {
+
+        /**
+         * Project key string.
+         */
+        private final String project;
+
+        /**
+         * Repository path prefix.
+         */
+        private final String prefix;
+
+        /**
+         * Page format.
+         */
+        private final IndexFormat format;
+
+        /**
+         * Page encoding.
+         */
+        private final PageEncoding encoding;
+
+        /**
+         * Ctor.
+         * @param project Project key
+         * @param prefix Repository path prefix
+         * @param format Page format
+         * @param encoding Page encoding
+         */
+        Id(final Key project, final String prefix, final IndexFormat format,
+            final PageEncoding encoding) {
+            this.project = project.string();
+            this.prefix = prefix;
+            this.format = format;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            final boolean res;
+            if (this == other) {
+                res = true;
+            } else if (other == null || this.getClass() != other.getClass()) {
+                res = false;
+            } else {
+                final IndexCache.Id that = (IndexCache.Id) other;
+                res = this.project.equals(that.project) && this.prefix.equals(that.prefix)
+                    && this.format == that.format && this.encoding == that.encoding;
+            }
+            return res;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.project, this.prefix, this.format, this.encoding);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.http.headers.Accept;
+import com.artipie.http.rq.RqHeaders;
+import com.artipie.pypi.meta.FileRecord;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * Simple repository API index format: html pages from
+ * <a href="https://peps.python.org/pep-0503/">PEP-503</a> or json from
+ * <a href="https://peps.python.org/pep-0691/">PEP-691</a>, chosen by {@code Accept} header.
+ * @since 1.0
+ */
+enum IndexFormat {
+
+    /**
+     * Html pages.
+     */
+    HTML(
+        "text/html", "index.html",
+        "application/vnd.pypi.simple.v1+html", "application/vnd.pypi.simple.latest+html",
+        "text/html", "text/*", "*/*"
+    ) {
+        @Override
+        Flowable<ByteBuffer> project(final String prefix, final Key project,
+            final Flowable<Map.Entry<Key, FileRecord>> files) {
+            return IndexFormat.html(
+                files.map(
+                    file -> String.format(
+                        "<a href=\"%s#sha256=%s\"%s%s>%s</a><br/>",
+                        IndexFormat.url(prefix, file.getKey()),
+                        file.getValue().sha256(),
+                        file.getValue().requiresPython().map(
+                            spec -> String.format(
+                                " data-requires-python=\"%s\"", IndexFormat.escape(spec)
+                            )
+                        ).orElse(""),
+                        file.getValue().metadata().map(
+                            sha -> String.format(
+                                String.join(
+                                    " ", "", "data-dist-info-metadata=\"sha256=%1$s\"",
+                                    "data-core-metadata=\"sha256=%1$s\""
+                                ),
+                                sha
+                            )
+                        ).orElse(""),
+                        new KeyLastPart(file.getKey()).get()
+                    )
+                )
+            );
+        }
+
+        @Override
+        Flowable<ByteBuffer> root(final String prefix, final List<String> names) {
+            return IndexFormat.html(
+                Flowable.fromIterable(names).map(
+                    name -> String.format("<a href=\"%s/%s/\">%s</a><br/>", prefix, name, name)
+                )
+            );
+        }
+    },
+
+    /**
+     * Json pages.
+     */
+    JSON(
+        "application/vnd.pypi.simple.v1+json", "index.json",
+        "application/vnd.pypi.simple.v1+json", "application/vnd.pypi.simple.latest+json"
+    ) {
+        @Override
+        Flowable<ByteBuffer> project(final String prefix, final Key project,
+            final Flowable<Map.Entry<Key, FileRecord>> files) {
+            return IndexFormat.json(
+                String.format(
+                    "{\"name\":%s,\"files\":", Json.createValue(new KeyLastPart(project).get())
+                ),
+                files.map(
+                    file -> {
+                        final JsonObjectBuilder json = Json.createObjectBuilder()
+                            .add("filename", new KeyLastPart(file.getKey()).get())
+                            .add("url", IndexFormat.url(prefix, file.getKey()))
+                            .add(
+                                "hashes",
+                                Json.createObjectBuilder().add("sha256", file.getValue().sha256())
+                            )
+                            .add("size", file.getValue().size());
+                        file.getValue().uploadTime()
+                            .ifPresent(time -> json.add("upload-time", time));
+                        file.getValue().requiresPython()
+                            .ifPresent(spec -> json.add("requires-python", spec));
+                        file.getValue().metadata().ifPresent(
+                            sha -> {
+                                json.add(
+                                    "core-metadata",
+                                    Json.createObjectBuilder().add("sha256", sha)
+                                );
+                                json.add(
+                                    "dist-info-metadata",
+                                    Json.createObjectBuilder().add("sha256", sha)
+                                );
+                            }
+                        );
+                        return json.build();
+                    }
+                )
+            );
+        }
+
+        @Override
+        Flowable<ByteBuffer> root(final String prefix, final List<String> names) {
+            return IndexFormat.json(
+                "{\"projects\":",
+                Flowable.fromIterable(names)
+                    .map(name -> Json.createObjectBuilder().add("name", name).build())
+            );
+        }
+    };
+
+    /**
+     * Response content type.
+     */
+    private final String type;
+
+    /**
+     * Name of the stored page file.
+     */
+    private final String file;
+
+    /**
+     * Accepted media types this format is chosen for.
+     */
+    private final List<String> accepted;
+
+    /**
+     * Ctor.
+     * @param type Response content type
+     * @param file Stored page file name
+     * @param accepted Accepted media types
+     */
+    IndexFormat(final String type, final String file, final String... accepted) {
+        this.type = type;
+        this.file = file;
+        this.accepted = Stream.of(accepted).collect(Collectors.toList());
+    }
+
+    /**
+     * Response content type.
+     * @return Media type
+     */
+    String contentType() {
+        return this.type;
+    }
+
+    /**
+     * Stored page file name.
+     * @return File name
+     */
+    String file() {
+        return this.file;
+    }
+
+    /**
+     * Render project page, page is emitted by parts as files are coming.
+     * @param prefix Repository path prefix
+     * @param project Project key
+     * @param files Project files keys with their records
+     * @return Page bytes
+     */
+    abstract Flowable<ByteBuffer> project(String prefix, Key project,
+        Flowable<Map.Entry<Key, FileRecord>> files);
+
+    /**
+     * Render repository root page, page is emitted by parts.
+     * @param prefix Repository path prefix
+     * @param names Projects names
+     * @return Page bytes
+     */
+    abstract Flowable<ByteBuffer> root(String prefix, List<String> names);
+
+    /**
+     * Choose format by request {@code Accept} header, the most preferred known media type
+     * wins, html is used when client does not accept any of known types.
+     * @param headers Request headers
+     * @return Index format
+     */
+    static IndexFormat of(final Iterable<Map.Entry<String, String>> headers) {
+        IndexFormat res = IndexFormat.HTML;
+        if (!new RqHeaders(headers, Accept.NAME).isEmpty()) {
+            res = new Accept(headers).values().stream().flatMap(
+                mime -> Stream.of(IndexFormat.values())
+                    .filter(fmt -> fmt.accepted.contains(mime))
+            ).findFirst().orElse(IndexFormat.HTML);
+        }
+        return res;
+    }
+
+    /**
+     * File url.
+     * @param prefix Repository path prefix
+     * @param file File key
+     * @return Url string
+     */
+    private static String url(final String prefix, final Key file) {
+        return String.format("%s/%s", prefix, file.string());
+    }
+
+    /**
+     * Escape html attribute value.
+     * @param value Value
+     * @return Escaped value
+     */
+    private static String escape(final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+            .replace("\"", "&quot;");
+    }
+
+    /**
+     * Html page with anchors: header, anchor per item and footer.
+     * @param anchors Anchors
+     * @return Page bytes
+     */
+    private static Flowable<ByteBuffer> html(final Flowable<String> anchors) {
+        return Flowable.concat(
+            Flowable.just("<!DOCTYPE html>\n<html>\n  </body>\n"),
+            anchors,
+            Flowable.just("\n</body>\n</html>")
+        ).map(IndexFormat::buffer);
+    }
+
+    /**
+     * Json page with items array and api version meta.
+     * @param header Page object opening with the name of items array field
+     * @param items Array items
+     * @return Page bytes
+     */
+    private static Flowable<ByteBuffer> json(final String header,
+        final Flowable<JsonObject> items) {
+        return Flowable.concat(
+            Flowable.just(String.format("%s[", header)),
+            Flowable.defer(
+                () -> {
+                    final AtomicBoolean first = new AtomicBoolean(true);
+                    return items.map(
+                        item -> {
+                            final String res;
+                            if (first.getAndSet(false)) {
+                                res = item.toString();
+                            } else {
+                                res = String.format(",%s", item);
+                            }
+                            return res;
+                        }
+                    );
+                }
+            ),
+            Flowable.just(
+                String.format(
+                    "],\"meta\":%s}",
+                    Json.createObjectBuilder().add("api-version", "1.0").build()
+                )
+            )
+        ).map(IndexFormat::buffer);
+    }
+
+    /**
+     * Page part bytes.
+     * @param part Page part
+     * @return Bytes
+     */
+    private static ByteBuffer buffer(final String part) {
+        return ByteBuffer.wrap(part.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.pypi.meta.FileRecord;
+import com.artipie.pypi.meta.FileRecords;
+import com.artipie.pypi.meta.Generation;
+import com.artipie.pypi.meta.MetaKey;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+/**
+ * Simple index page of the python project. Pages of all {@link IndexFormat}s and
+ * {@link PageEncoding}s are rendered when project files are changed and are kept in storage
+ * with {@code .pypi/<project>/pages/<prefix>/index.<format>[.<encoding>]} keys, as links on
+ * the page depend on repository path prefix, pages for different prefixes are stored
+ * separately.
+ * Files are listed on the page in keys order, their records are read with limited
+ * concurrency, so that rendering a page of a large project does not exhaust storage
+ * client connections. Pages are discarded if project {@link Generation} was changed while
+ * they were rendered, as they may miss the change. Pages are stored only for projects with
+ * files and for prefixes which are valid to be a part of storage key, see
+ * {@link #valid(String)}.
+ * @since 1.0
+ */
+final class IndexPage {
+
+    /**
+     * Pages directory name.
+     */
+    private static final String PAGES = "pages";
+
+    /**
+     * Default max number of files records read at once.
+     */
+    static final int CONCURRENCY = 8;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Project key.
+     */
+    private final Key project;
+
+    /**
+     * Repository path prefix.
+     */
+    private final String prefix;
+
+    /**
+     * Max number of files records read at once.
+     */
+    private final int concurrency;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param project Project key
+     * @param prefix Repository path prefix
+     */
+    IndexPage(final Storage storage, final Key project, final String prefix) {
+        this(storage, project, prefix, IndexPage.CONCURRENCY);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param project Project key
+     * @param prefix Repository path prefix
+     * @param concurrency Max number of files records read at once
+     */
+    IndexPage(final Storage storage, final Key project, final String prefix,
+        final int concurrency) {
+        this.storage = storage;
+        this.project = project;
+        this.prefix = prefix;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Stored page content, pages are rendered and saved if page is absent. If rendered pages
+     * were discarded, or prefix is not valid to be stored, the page is rendered for this call
+     * only. Nothing is rendered or saved for project without files.
+     * @param format Page format
+     * @param encoding Page encoding
+     * @return Completion action with page content, empty if project has no files
+     */
+    CompletionStage<Optional<Content>> content(final IndexFormat format,
+        final PageEncoding encoding) {
+        final Key key = this.key(format, encoding);
+        final CompletionStage<Boolean> exists;
+        if (IndexPage.valid(this.prefix)) {
+            exists = this.storage.exists(key);
+        } else {
+            exists = CompletableFuture.completedFuture(false);
+        }
+        return exists.thenCompose(
+            stored -> {
+                final CompletionStage<Optional<Content>> res;
+                if (stored) {
+                    res = this.storage.value(key).thenApply(Optional::of);
+                } else {
+                    res = this.listed().thenCompose(
+                        listed -> {
+                            final CompletionStage<Optional<Content>> page;
+                            if (listed) {
+                                page = this.saved(format, encoding).thenApply(Optional::of);
+                            } else {
+                                page = CompletableFuture.completedFuture(Optional.empty());
+                            }
+                            return page;
+                        }
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Remove project pages rendered for all the prefixes, render pages for
+     * current prefix and increase project {@link Generation}. Generation is increased after
+     * pages are saved, so that a page is never served with a tag of newer generation than
+     * the page itself.
+     * @return Completion action
+     */
+    CompletionStage<Void> update() {
+        return this.storage.deleteAll(new MetaKey(new Key.From(this.project, IndexPage.PAGES)))
+            .thenCompose(nothing -> this.save())
+            .thenCompose(nothing -> new Generation(this.storage, this.project).next())
+            .thenApply(gen -> null);
+    }
+
+    /**
+     * Remove project pages rendered for all the prefixes and increase project
+     * {@link Generation}, pages are rendered again on the first access or by
+     * {@link #save()}. Generation is increased after pages are removed, so that an outdated
+     * page is never served with a tag of newer generation.
+     * @return Completion action
+     */
+    CompletionStage<Void> invalidate() {
+        return this.storage.deleteAll(new MetaKey(new Key.From(this.project, IndexPage.PAGES)))
+            .thenCompose(nothing -> new Generation(this.storage, this.project).next())
+            .thenApply(gen -> null);
+    }
+
+    /**
+     * Render and save pages for current prefix, saved pages are removed if project generation
+     * was changed while pages were rendered. Pages are not saved if prefix is not valid.
+     * @return Completion action
+     */
+    CompletionStage<Void> save() {
+        final CompletionStage<Void> res;
+        if (IndexPage.valid(this.prefix)) {
+            final Generation gen = new Generation(this.storage, this.project);
+            res = gen.value().thenCompose(
+                before -> this.write().thenCompose(nothing -> gen.value()).thenCompose(
+                    after -> {
+                        final CompletionStage<Void> del;
+                        if (after.equals(before)) {
+                            del = CompletableFuture.allOf();
+                        } else {
+                            del = this.storage.deleteAll(this.dir());
+                        }
+                        return del;
+                    }
+                )
+            );
+        } else {
+            res = CompletableFuture.allOf();
+        }
+        return res;
+    }
+
+    /**
+     * Is repository path prefix valid to be a part of storage key? Prefix is valid if it
+     * consists of slash separated non-empty segments of ASCII letters, digits, dots, dashes,
+     * underscores and tildes, which do not start with a dot.
+     * @param prefix Repository path prefix
+     * @return True if valid
+     */
+    static boolean valid(final String prefix) {
+        boolean res = true;
+        boolean start = true;
+        for (int idx = 0; idx < prefix.length() && res; idx = idx + 1) {
+            final char chr = prefix.charAt(idx);
+            if (chr == '/') {
+                res = idx == 0 || !start;
+                start = true;
+            } else {
+                res = chr >= 'a' && chr <= 'z' || chr >= 'A' && chr <= 'Z'
+                    || chr >= '0' && chr <= '9' || chr == '-' || chr == '_' || chr == '~'
+                    || chr == '.' && !start;
+                start = false;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Does project have files?
+     * @return Completion action with true if project has files
+     */
+    private CompletionStage<Boolean> listed() {
+        return this.storage.list(this.project).thenApply(
+            keys -> keys.stream().anyMatch(key -> !MetaKey.hidden(key))
+        );
+    }
+
+    /**
+     * Render and save pages and read saved page, the page is rendered for this call only if
+     * it was not saved.
+     * @param format Page format
+     * @param encoding Page encoding
+     * @return Completion action with page content
+     */
+    private CompletionStage<Content> saved(final IndexFormat format,
+        final PageEncoding encoding) {
+        final Key key = this.key(format, encoding);
+        final CompletionStage<Boolean> stored;
+        if (IndexPage.valid(this.prefix)) {
+            stored = this.save().thenCompose(nothing -> this.storage.exists(key));
+        } else {
+            stored = CompletableFuture.completedFuture(false);
+        }
+        return stored.thenCompose(
+            exists -> {
+                final CompletionStage<Content> res;
+                if (exists) {
+                    res = this.storage.value(key);
+                } else {
+                    res = CompletableFuture.completedFuture(
+                        new Content.From(
+                            encoding.encode(format.project(this.prefix, this.project, this.files()))
+                        )
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Render pages of all formats from project files list and records and save them along
+     * with their encoded variants, pages are streamed to storage as files records are read.
+     * Records are read once for all the formats.
+     * @return Completion action
+     */
+    private CompletionStage<Void> write() {
+        final Flowable<Map.Entry<Key, FileRecord>> files = this.files().cache();
+        return CompletableFuture.allOf(
+            Stream.of(IndexFormat.values()).flatMap(
+                format -> Stream.of(PageEncoding.values()).map(
+                    encoding -> this.storage.save(
+                        this.key(format, encoding),
+                        new Content.From(
+                            encoding.encode(format.project(this.prefix, this.project, files))
+                        )
+                    )
+                )
+            ).toArray(CompletableFuture[]::new)
+        );
+    }
+
+    /**
+     * Project files with records.
+     * @return Files keys and records
+     */
+    private Flowable<Map.Entry<Key, FileRecord>> files() {
+        return SingleInterop.fromFuture(this.storage.list(this.project))
+            .flatMapPublisher(Flowable::fromIterable)
+            .filter(key -> !MetaKey.hidden(key))
+            .sorted(Comparator.comparing(Key::string))
+            .concatMapEager(
+                key -> Single.defer(
+                    () -> SingleInterop.fromFuture(
+                        new FileRecords(this.storage).get(key)
+                            .<Map.Entry<Key, FileRecord>>thenApply(
+                                rec -> new AbstractMap.SimpleImmutableEntry<>(key, rec)
+                            )
+                    )
+                ).toFlowable(),
+                this.concurrency, 1
+            );
+    }
+
+    /**
+     * Page key.
+     * @param format Page format
+     * @param encoding Page encoding
+     * @return Key of the page for current prefix
+     */
+    private Key key(final IndexFormat format, final PageEncoding encoding) {
+        return new Key.From(
+            this.dir(), String.format("%s%s", format.file(), encoding.extension())
+        );
+    }
+
+    /**
+     * Pages directory.
+     * @return Key of the pages directory for current prefix
+     */
+    private Key dir() {
+        return new MetaKey(
+            new Key.From(
+                new Key.From(this.project, IndexPage.PAGES),
+                new Key.From(this.prefix.replaceAll("^/+", ""))
+            )
+        );
+    }
+}
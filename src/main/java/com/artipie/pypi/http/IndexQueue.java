@@ -0,0 +1,339 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.pypi.meta.MetaKey;
+import com.jcabi.log.Logger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Queue of projects which {@link IndexPage}s are to be rendered after upload. Upload only
+ * invalidates project pages, pages are rendered by the queue off the request with limited
+ * number of workers, uploads of several files to the same project
+ * waiting in the queue are rendered at once. Queued projects are kept in storage with
+ * {@code .pypi/.queue/<project>} keys, project is added to the queue when its key is saved,
+ * projects left in the queue by the previous run are queued again on the first upload.
+ * If the queue is full, pages are rendered by the caller. Cached pages of the project are
+ * invalidated in {@link IndexCache} when project pages are rendered.
+ * @since 1.0
+ */
+final class IndexQueue {
+
+    /**
+     * Queued projects storage directory.
+     */
+    private static final Key DIR = new MetaKey(new Key.From(".queue"));
+
+    /**
+     * Default max number of projects rendered at once.
+     */
+    private static final int WORKERS = 2;
+
+    /**
+     * Default max number of queued projects.
+     */
+    private static final int CAPACITY = 1024;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Index pages cache.
+     */
+    private final IndexCache cache;
+
+    /**
+     * Max number of projects rendered at once.
+     */
+    private final int workers;
+
+    /**
+     * Max number of queued projects.
+     */
+    private final int capacity;
+
+    /**
+     * Max number of files records read at once by page render.
+     */
+    private final int reads;
+
+    /**
+     * Queued tasks by project key, guarded by this queue.
+     */
+    private final Map<String, Task> pending;
+
+    /**
+     * Keys of projects being rendered, guarded by this queue.
+     */
+    private final Set<String> active;
+
+    /**
+     * Recovery of projects left by the previous run, is started on the first use.
+     */
+    private final AtomicReference<CompletableFuture<Void>> recovery;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Index pages cache
+     */
+    IndexQueue(final Storage storage, final IndexCache cache) {
+        this(storage, cache, IndexPage.CONCURRENCY);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Index pages cache
+     * @param reads Max number of files records read at once by page render
+     */
+    IndexQueue(final Storage storage, final IndexCache cache, final int reads) {
+        this(storage, cache, IndexQueue.WORKERS, IndexQueue.CAPACITY, reads);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Index pages cache
+     * @param workers Max number of projects rendered at once
+     * @param capacity Max number of queued projects
+     */
+    IndexQueue(final Storage storage, final IndexCache cache, final int workers,
+        final int capacity) {
+        this(storage, cache, workers, capacity, IndexPage.CONCURRENCY);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Index pages cache
+     * @param workers Max number of projects rendered at once
+     * @param capacity Max number of queued projects
+     * @param reads Max number of files records read at once by page render
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    IndexQueue(final Storage storage, final IndexCache cache, final int workers,
+        final int capacity, final int reads) {
+        this.storage = storage;
+        this.cache = cache;
+        this.workers = workers;
+        this.capacity = capacity;
+        this.reads = reads;
+        this.pending = new LinkedHashMap<>();
+        this.active = new HashSet<>();
+        this.recovery = new AtomicReference<>();
+    }
+
+    /**
+     * Add project to the queue, project pages are expected to be invalidated already.
+     * @param project Project key
+     * @param prefix Repository path prefix to render pages for
+     * @return Completion action, completes when project is saved to storage queue or, if the
+     *  queue is full, when project pages are rendered
+     */
+    CompletionStage<Void> add(final Key project, final String prefix) {
+        return this.recovered().thenCompose(
+            recovered -> {
+                final Task task;
+                synchronized (this) {
+                    if (this.pending.containsKey(project.string())
+                        || this.pending.size() < this.capacity) {
+                        task = this.pending.computeIfAbsent(
+                            project.string(), key -> new Task(project, prefix)
+                        );
+                    } else {
+                        task = null;
+                    }
+                }
+                final CompletionStage<Void> res;
+                if (task == null) {
+                    res = this.render(project, prefix).thenApply(rendered -> null);
+                } else {
+                    res = this.storage.save(
+                        IndexQueue.marker(project),
+                        new Content.From(prefix.getBytes(StandardCharsets.UTF_8))
+                    ).thenRun(this::drain);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Queue projects left in storage by the previous run, projects are queued once on the
+     * first call.
+     * @return Completion action
+     */
+    private CompletionStage<Void> recovered() {
+        CompletableFuture<Void> res = this.recovery.get();
+        if (res == null) {
+            final CompletableFuture<Void> started = new CompletableFuture<>();
+            if (this.recovery.compareAndSet(null, started)) {
+                this.recover().whenComplete(
+                    (nothing, err) -> {
+                        if (err != null) {
+                            Logger.warn(this, "Failed to recover index queue: %[exception]s", err);
+                        }
+                        started.complete(null);
+                        this.drain();
+                    }
+                );
+            }
+            res = this.recovery.get();
+        }
+        return res;
+    }
+
+    /**
+     * Read projects left in storage queue by the previous run.
+     * @return Completion action
+     */
+    private CompletionStage<Void> recover() {
+        return this.storage.list(IndexQueue.DIR).thenCompose(
+            keys -> CompletableFuture.allOf(
+                keys.stream().map(
+                    key -> this.storage.value(key)
+                        .thenCompose(val -> new PublisherAs(val).string(StandardCharsets.UTF_8))
+                        .thenAccept(
+                            prefix -> {
+                                final Key project = new Key.From(
+                                    key.string().substring(IndexQueue.DIR.string().length() + 1)
+                                );
+                                synchronized (this) {
+                                    this.pending.putIfAbsent(
+                                        project.string(), new Task(project, prefix)
+                                    );
+                                }
+                            }
+                        ).toCompletableFuture()
+                ).toArray(CompletableFuture[]::new)
+            )
+        );
+    }
+
+    /**
+     * Start rendering of queued projects while there are free workers.
+     */
+    private void drain() {
+        synchronized (this) {
+            final Iterator<Map.Entry<String, Task>> iter = this.pending.entrySet().iterator();
+            while (this.active.size() < this.workers && iter.hasNext()) {
+                final Map.Entry<String, Task> entry = iter.next();
+                if (this.active.add(entry.getKey())) {
+                    iter.remove();
+                    this.run(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Render project pages, project is removed from storage queue if pages are rendered and
+     * project was not queued again while rendering.
+     * @param task Task to run
+     */
+    private void run(final Task task) {
+        this.render(task.project, task.prefix).thenCompose(
+            rendered -> {
+                final boolean queued;
+                synchronized (this) {
+                    queued = this.pending.containsKey(task.project.string());
+                }
+                final CompletionStage<Void> res;
+                if (queued || !rendered) {
+                    res = CompletableFuture.allOf();
+                } else {
+                    res = this.storage.delete(IndexQueue.marker(task.project));
+                }
+                return res;
+            }
+        ).whenComplete(
+            (nothing, err) -> {
+                synchronized (this) {
+                    this.active.remove(task.project.string());
+                }
+                if (err != null) {
+                    Logger.warn(
+                        this, "Failed to remove %s from index queue: %[exception]s",
+                        task.project.string(), err
+                    );
+                }
+                this.drain();
+            }
+        );
+    }
+
+    /**
+     * Render project pages and invalidate cached pages of the project, render error is
+     * logged.
+     * @param project Project key
+     * @param prefix Repository path prefix
+     * @return Completion action with true if pages were rendered
+     */
+    private CompletionStage<Boolean> render(final Key project, final String prefix) {
+        return new IndexPage(this.storage, project, prefix, this.reads).save().handle(
+            (nothing, err) -> {
+                this.cache.invalidate(project);
+                if (err != null) {
+                    Logger.warn(
+                        this, "Failed to render index of %s: %[exception]s",
+                        project.string(), err
+                    );
+                }
+                return err == null;
+            }
+        );
+    }
+
+    /**
+     * Storage key of queued project.
+     * @param project Project key
+     * @return Key
+     */
+    private static Key marker(final Key project) {
+        return new Key.From(IndexQueue.DIR, project);
+    }
+
+    /**
+     * Queued project.
+     * @since 1.0
+     */
+    private static final class Task {
+
+        /**
+         * Project key.
+         */
+        private final Key project;
+
+        /**
+         * Repository path prefix.
+         */
+        private final String prefix;
+
+        /**
+         * Ctor.
+         * @param project Project key
+         * @param prefix Repository path prefix
+         */
+        Task(final Key project, final String prefix) {
+            this.project = project;
+            this.prefix = prefix;
+        }
+    }
+}
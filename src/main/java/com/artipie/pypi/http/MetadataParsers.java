@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Pool of package metadata parsers, see {@link MetadataStream}. Parsers block while waiting
+ * for archive content, so the number of parser threads is limited, parsers over the limit
+ * wait for a thread. Each parse, including the wait, is limited by timeout: when timeout
+ * expires, parse fails and parser thread is interrupted, so that stalled content does not
+ * hold the thread. Idle threads are stopped, so the pool owned by a slice does not keep
+ * threads when there are no uploads.
+ * @since 1.0
+ */
+final class MetadataParsers {
+
+    /**
+     * Default max number of parser threads.
+     */
+    static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * Default parse timeout.
+     */
+    static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    /**
+     * Parser threads.
+     */
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * Timeouts timer.
+     */
+    private final ScheduledThreadPoolExecutor timer;
+
+    /**
+     * Parse timeout.
+     */
+    private final Duration timeout;
+
+    /**
+     * Ctor.
+     */
+    MetadataParsers() {
+        this(MetadataParsers.THREADS, MetadataParsers.TIMEOUT);
+    }
+
+    /**
+     * Ctor.
+     * @param threads Max number of parser threads
+     * @param timeout Parse timeout
+     */
+    MetadataParsers(final int threads, final Duration timeout) {
+        this.pool = new ThreadPoolExecutor(
+            threads, threads, 1L, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+            new DaemonThreads("pypi-metadata")
+        );
+        this.pool.allowCoreThreadTimeOut(true);
+        this.timer = new ScheduledThreadPoolExecutor(1, new DaemonThreads("pypi-metadata-timer"));
+        this.timer.setKeepAliveTime(1L, TimeUnit.MINUTES);
+        this.timer.allowCoreThreadTimeOut(true);
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Run parser on the pool.
+     * @param parser Parser
+     * @param <T> Parse result type
+     * @return Completion action with parse result, fails if timeout expires
+     */
+    <T> CompletableFuture<T> parse(final Supplier<T> parser) {
+        final CompletableFuture<T> res = new CompletableFuture<>();
+        final Future<?> task = this.pool.submit(
+            () -> {
+                // @checkstyle IllegalCatchCheck (3 lines)
+                try {
+                    res.complete(parser.get());
+                } catch (final RuntimeException ex) {
+                    res.completeExceptionally(ex);
+                }
+            }
+        );
+        final ScheduledFuture<?> expiry = this.timer.schedule(
+            () -> {
+                if (res.completeExceptionally(
+                    new TimeoutException(
+                        String.format("Metadata was not parsed in %s", this.timeout)
+                    )
+                )) {
+                    task.cancel(true);
+                }
+            },
+            this.timeout.toMillis(), TimeUnit.MILLISECONDS
+        );
+        res.whenComplete((val, err) -> expiry.cancel(false));
+        return res;
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.ArtipieException;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.pypi.meta.CoreMetadata;
+import com.artipie.pypi.meta.Metadata;
+import com.artipie.pypi.meta.PackageInfo;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.reactivestreams.Publisher;
+
+/**
+ * Package metadata read from the archive content as content bytes are passing by. Metadata
+ * is parsed by {@link MetadataParsers} pool from the queue of passed bytes: the queue
+ * is limited, when the parser is slower than the content, the content is not requested from
+ * upstream until the parser catches up. Parser may stop before the end of the archive, the
+ * rest of the content is not queued then.
+ * @since 1.0
+ */
+final class MetadataStream {
+
+    /**
+     * End of stream mark.
+     */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    /**
+     * Max number of queued bytes not yet read by parser.
+     */
+    private static final long LIMIT = 1024 * 1024;
+
+    /**
+     * Archive content.
+     */
+    private final Publisher<ByteBuffer> origin;
+
+    /**
+     * Archive file name.
+     */
+    private final String name;
+
+    /**
+     * Bytes not yet read by metadata parser.
+     */
+    private final MetadataStream.Queue queue;
+
+    /**
+     * Metadata parsers.
+     */
+    private final MetadataParsers parsers;
+
+    /**
+     * Package metadata.
+     */
+    private final CompletableFuture<PackageInfo> meta;
+
+    /**
+     * Ctor.
+     * @param origin Archive content
+     * @param name Archive file name
+     * @param parsers Metadata parsers
+     */
+    MetadataStream(final Publisher<ByteBuffer> origin, final String name,
+        final MetadataParsers parsers) {
+        this.origin = origin;
+        this.name = name;
+        this.parsers = parsers;
+        this.queue = new MetadataStream.Queue();
+        this.meta = new CompletableFuture<>();
+    }
+
+    /**
+     * Archive content, content can be read only once. Metadata parser is started when
+     * content is subscribed.
+     * @return Content
+     */
+    Flowable<ByteBuffer> content() {
+        return Flowable.fromPublisher(this.origin)
+            .doOnSubscribe(
+                sub -> this.parsers.parse(
+                    () -> new Metadata.FromArchive(this.queue, this.name).read()
+                ).whenComplete(
+                    (info, err) -> {
+                        this.queue.close();
+                        if (err == null) {
+                            this.meta.complete(info);
+                        } else {
+                            this.meta.completeExceptionally(err);
+                        }
+                    }
+                )
+            )
+            .concatMap(
+                buf -> CompletableInterop.fromFuture(this.queue.offer(buf.duplicate()))
+                    .andThen(Flowable.just(buf))
+            )
+            .doOnComplete(() -> this.queue.offer(MetadataStream.END))
+            .doOnError(this.queue::fail)
+            .doOnCancel(() -> this.queue.fail(new ArtipieException("Content was cancelled")));
+    }
+
+    /**
+     * Package metadata, is available when content is read.
+     * @return Completion action with package info
+     */
+    CompletionStage<PackageInfo> info() {
+        return this.meta;
+    }
+
+    /**
+     * Read content until metadata is parsed.
+     * @return Completion action with package info
+     */
+    CompletionStage<PackageInfo> read() {
+        return this.content()
+            .takeUntil(SingleInterop.fromFuture(this.meta).toFlowable())
+            .ignoreElements()
+            .andThen(SingleInterop.fromFuture(this.meta))
+            .to(SingleInterop.get());
+    }
+
+    /**
+     * Package metadata of the stored distribution file from its core metadata file, if there
+     * is one, or from the archive.
+     * @param storage Storage
+     * @param file Distribution file key
+     * @param parsers Metadata parsers
+     * @return Completion action with package info
+     */
+    static CompletionStage<PackageInfo> stored(final Storage storage, final Key file,
+        final MetadataParsers parsers) {
+        final Key meta = CoreMetadata.key(file);
+        return storage.exists(meta).thenCompose(
+            exists -> {
+                final CompletionStage<PackageInfo> res;
+                if (exists) {
+                    res = storage.value(meta)
+                        .thenCompose(val -> new PublisherAs(val).string(StandardCharsets.UTF_8))
+                        .thenApply(PackageInfo.FromMetadata::new);
+                } else {
+                    res = storage.value(file).thenCompose(
+                        val -> new MetadataStream(val, file.string(), parsers).read()
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Input stream of the queued bytes for metadata parser. Number of queued bytes is
+     * limited by {@link MetadataStream#LIMIT}: bytes are always accepted, but next bytes are
+     * expected to be offered when the parser reads the queue below the limit.
+     * @since 1.0
+     */
+    private static final class Queue extends InputStream {
+
+        /**
+         * Queued buffers.
+         */
+        private final BlockingQueue<ByteBuffer> buffers;
+
+        /**
+         * Is parser done with the stream?
+         */
+        private final AtomicBoolean closed;
+
+        /**
+         * Queued bytes count.
+         */
+        private final AtomicLong queued;
+
+        /**
+         * Completes when queued bytes are read below the limit, if the limit was reached.
+         */
+        private final AtomicReference<CompletableFuture<Void>> space;
+
+        /**
+         * Upstream error.
+         */
+        private volatile Throwable error;
+
+        /**
+         * Buffer being read.
+         */
+        private ByteBuffer current;
+
+        /**
+         * Ctor.
+         */
+        Queue() {
+            super();
+            this.buffers = new LinkedBlockingQueue<>();
+            this.closed = new AtomicBoolean();
+            this.queued = new AtomicLong();
+            this.space = new AtomicReference<>();
+            this.current = ByteBuffer.allocate(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] one = new byte[1];
+            final int res;
+            if (this.read(one, 0, 1) == -1) {
+                res = -1;
+            } else {
+                res = one[0] & 0xff;
+            }
+            return res;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int off, final int len) throws IOException {
+            while (!this.current.hasRemaining() && this.current != MetadataStream.END) {
+                try {
+                    this.current = this.buffers.take();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+                if (this.queued.addAndGet(-this.current.remaining()) <= MetadataStream.LIMIT) {
+                    this.release();
+                }
+            }
+            final int res;
+            if (this.current == MetadataStream.END) {
+                if (this.error != null) {
+                    throw new IOException("Failed to read archive content", this.error);
+                }
+                res = -1;
+            } else {
+                res = Math.min(len, this.current.remaining());
+                this.current.get(bytes, off, res);
+            }
+            return res;
+        }
+
+        @Override
+        public void close() {
+            this.closed.set(true);
+            this.buffers.clear();
+            this.release();
+        }
+
+        /**
+         * Add bytes to the queue, bytes are dropped if parser is done.
+         * @param buf Bytes
+         * @return Completion action, completes when next bytes can be offered
+         */
+        CompletionStage<Void> offer(final ByteBuffer buf) {
+            CompletableFuture<Void> res = CompletableFuture.completedFuture(null);
+            if (!this.closed.get()) {
+                final long size = this.queued.addAndGet(buf.remaining());
+                this.buffers.add(buf);
+                if (size > MetadataStream.LIMIT) {
+                    res = new CompletableFuture<>();
+                    this.space.set(res);
+                    if (this.queued.get() <= MetadataStream.LIMIT || this.closed.get()) {
+                        this.release();
+                    }
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Fail the stream.
+         * @param err Error
+         */
+        void fail(final Throwable err) {
+            this.error = err;
+            this.buffers.add(MetadataStream.END);
+        }
+
+        /**
+         * Let the next bytes be offered.
+         */
+        private void release() {
+            final CompletableFuture<Void> waiting = this.space.getAndSet(null);
+            if (waiting != null) {
+                waiting.complete(null);
+            }
+        }
+    }
+}
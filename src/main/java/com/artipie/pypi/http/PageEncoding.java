@@ -0,0 +1,174 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.rq.RqHeaders;
+import io.reactivex.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Index page content encoding, chosen by request {@code Accept-Encoding} header. Pages are
+ * encoded once when rendered and encoded variants are stored alongside the identity page.
+ * @since 1.0
+ */
+enum PageEncoding {
+
+    /**
+     * No encoding.
+     */
+    IDENTITY("identity", "") {
+        @Override
+        Flowable<ByteBuffer> encode(final Flowable<ByteBuffer> page) {
+            return page;
+        }
+    },
+
+    /**
+     * Gzip encoding.
+     */
+    GZIP("gzip", ".gz") {
+        @Override
+        Flowable<ByteBuffer> encode(final Flowable<ByteBuffer> page) {
+            return Flowable.defer(
+                () -> {
+                    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    final GZIPOutputStream gzip = new GZIPOutputStream(out);
+                    return page.map(
+                        buf -> {
+                            final byte[] bytes = new byte[buf.remaining()];
+                            buf.duplicate().get(bytes);
+                            gzip.write(bytes);
+                            return PageEncoding.drain(out);
+                        }
+                    ).concatWith(
+                        Flowable.fromCallable(
+                            () -> {
+                                gzip.finish();
+                                return PageEncoding.drain(out);
+                            }
+                        )
+                    ).filter(ByteBuffer::hasRemaining).doFinally(gzip::close);
+                }
+            );
+        }
+    };
+
+    /**
+     * Request header name.
+     */
+    private static final String HEADER = "Accept-Encoding";
+
+    /**
+     * Encoding name.
+     */
+    private final String name;
+
+    /**
+     * Stored page file extension.
+     */
+    private final String ext;
+
+    /**
+     * Ctor.
+     * @param name Encoding name
+     * @param ext Stored page file extension
+     */
+    PageEncoding(final String name, final String ext) {
+        this.name = name;
+        this.ext = ext;
+    }
+
+    /**
+     * Encoding name for {@code Content-Encoding} header.
+     * @return Name
+     */
+    String encoding() {
+        return this.name;
+    }
+
+    /**
+     * Stored page file extension.
+     * @return Extension
+     */
+    String extension() {
+        return this.ext;
+    }
+
+    /**
+     * Encode page.
+     * @param page Page bytes
+     * @return Encoded page bytes
+     */
+    abstract Flowable<ByteBuffer> encode(Flowable<ByteBuffer> page);
+
+    /**
+     * Choose encoding by request {@code Accept-Encoding} header: gzip is used when it is
+     * accepted explicitly or by wildcard with non-zero quality.
+     * @param headers Request headers
+     * @return Page encoding
+     */
+    static PageEncoding of(final Iterable<Map.Entry<String, String>> headers) {
+        final Optional<Double> gzip = PageEncoding.quality(headers, PageEncoding.GZIP.name);
+        final PageEncoding res;
+        if (gzip.orElseGet(() -> PageEncoding.quality(headers, "*").orElse(0.0)) > 0) {
+            res = PageEncoding.GZIP;
+        } else {
+            res = PageEncoding.IDENTITY;
+        }
+        return res;
+    }
+
+    /**
+     * Quality of the coding listed in {@code Accept-Encoding} header.
+     * @param headers Request headers
+     * @param coding Coding name
+     * @return Quality if coding is listed
+     */
+    private static Optional<Double> quality(final Iterable<Map.Entry<String, String>> headers,
+        final String coding) {
+        return new RqHeaders(headers, PageEncoding.HEADER).stream()
+            .flatMap(value -> Stream.of(value.split(",")))
+            .map(item -> item.split(";"))
+            .filter(parts -> parts[0].trim().toLowerCase(Locale.US).equals(coding))
+            .map(
+                parts -> Stream.of(parts).skip(1).map(String::trim)
+                    .filter(param -> param.startsWith("q="))
+                    .map(param -> PageEncoding.number(param.substring(2)))
+                    .findFirst().orElse(1.0)
+            ).findFirst();
+    }
+
+    /**
+     * Parse quality value, malformed value is considered as zero.
+     * @param value Value
+     * @return Quality
+     */
+    private static double number(final String value) {
+        double res;
+        try {
+            res = Double.parseDouble(value);
+        } catch (final NumberFormatException ex) {
+            res = 0;
+        }
+        return res;
+    }
+
+    /**
+     * Take bytes written to the stream so far.
+     * @param out Stream
+     * @return Bytes
+     */
+    private static ByteBuffer drain(final ByteArrayOutputStream out) {
+        final ByteBuffer res = ByteBuffer.wrap(out.toByteArray());
+        out.reset();
+        return res;
+    }
+}
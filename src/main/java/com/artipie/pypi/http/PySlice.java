@@ -21,9 +21,12 @@ import com.artipie.http.rt.ByMethodsRule;
 import com.artipie.http.rt.RtRule;
 import com.artipie.http.rt.RtRulePath;
 import com.artipie.http.rt.SliceRoute;
+import com.artipie.http.slice.KeyFromPath;
 import com.artipie.http.slice.SliceDownload;
 import com.artipie.http.slice.SliceSimple;
 import com.artipie.http.slice.SliceWithHeaders;
+import com.artipie.pypi.meta.CoreMetadata;
+import java.time.Duration;
 import java.util.regex.Pattern;
 
 /**
@@ -44,12 +47,95 @@ public final class PySlice extends Slice.Wrap {
     }
 
     /**
-     * Primary ctor.
+     * Ctor.
      * @param storage The storage.
      * @param perms Access permissions.
      * @param auth Concrete identities.
      */
     public PySlice(final Storage storage, final Permissions perms, final Authentication auth) {
+        this(storage, perms, auth, false);
+    }
+
+    /**
+     * Ctor.
+     * @param storage The storage.
+     * @param perms Access permissions.
+     * @param auth Concrete identities.
+     * @param deferred Accept uploads by twine form fields and verify archives after upload.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public PySlice(final Storage storage, final Permissions perms, final Authentication auth,
+        final boolean deferred) {
+        this(storage, perms, auth, deferred, MetadataParsers.THREADS, MetadataParsers.TIMEOUT);
+    }
+
+    /**
+     * Ctor.
+     * @param storage The storage.
+     * @param perms Access permissions.
+     * @param auth Concrete identities.
+     * @param deferred Accept uploads by twine form fields and verify archives after upload.
+     * @param parsers Max number of package metadata parser threads.
+     * @param timeout Package metadata parse timeout.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public PySlice(final Storage storage, final Permissions perms, final Authentication auth,
+        final boolean deferred, final int parsers, final Duration timeout) {
+        this(storage, perms, auth, deferred, parsers, timeout, IndexPage.CONCURRENCY);
+    }
+
+    /**
+     * Ctor.
+     * @param storage The storage.
+     * @param perms Access permissions.
+     * @param auth Concrete identities.
+     * @param deferred Accept uploads by twine form fields and verify archives after upload.
+     * @param parsers Max number of package metadata parser threads.
+     * @param timeout Package metadata parse timeout.
+     * @param reads Max number of files records read at once by index page render.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public PySlice(final Storage storage, final Permissions perms, final Authentication auth,
+        final boolean deferred, final int parsers, final Duration timeout, final int reads) {
+        this(storage, perms, auth, deferred, new MetadataParsers(parsers, timeout), reads);
+    }
+
+    /**
+     * Ctor.
+     * @param storage The storage.
+     * @param perms Access permissions.
+     * @param auth Concrete identities.
+     * @param deferred Accept uploads by twine form fields and verify archives after upload.
+     * @param parsers Package metadata parsers shared by upload and search slices.
+     * @param reads Max number of files records read at once by index page render.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private PySlice(final Storage storage, final Permissions perms, final Authentication auth,
+        final boolean deferred, final MetadataParsers parsers, final int reads) {
+        this(
+            storage, perms, auth, new IndexCache(), new SearchIndex(storage, parsers),
+            new Catalog(storage, parsers), new Changelog(storage), deferred, parsers, reads
+        );
+    }
+
+    /**
+     * Primary ctor.
+     * @param storage The storage.
+     * @param perms Access permissions.
+     * @param auth Concrete identities.
+     * @param cache Index pages cache shared by upload and index slices.
+     * @param index Search index shared by upload and search slices.
+     * @param catalog Catalog shared by upload and search slices.
+     * @param changelog Repository changelog shared by upload, search and index slices.
+     * @param deferred Accept uploads by twine form fields and verify archives after upload.
+     * @param parsers Package metadata parsers shared by upload and search slices.
+     * @param reads Max number of files records read at once by index page render.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private PySlice(final Storage storage, final Permissions perms, final Authentication auth,
+        final IndexCache cache, final SearchIndex index, final Catalog catalog,
+        final Changelog changelog, final boolean deferred, final MetadataParsers parsers,
+        final int reads) {
         super(
             new SliceRoute(
                 new RtRulePath(
@@ -66,6 +152,29 @@ public final class PySlice extends Slice.Wrap {
                         new Permission.ByName(perms, Action.Standard.READ)
                     )
                 ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(".*\\.whl\\.metadata")
+                    ),
+                    new BasicAuthSlice(
+                        new SliceWithHeaders(
+                            new SliceDownload(
+                                storage,
+                                path -> CoreMetadata.key(
+                                    new KeyFromPath(
+                                        path.substring(
+                                            0, path.length() - CoreMetadata.EXT.length()
+                                        )
+                                    )
+                                )
+                            ),
+                            new Headers.From(new ContentType("text/plain; charset=utf-8"))
+                        ),
+                        auth,
+                        new Permission.ByName(perms, Action.Standard.READ)
+                    )
+                ),
                 new RtRulePath(
                     new RtRule.All(
                         new ByMethodsRule(RqMethod.POST),
@@ -74,7 +183,9 @@ public final class PySlice extends Slice.Wrap {
                         )
                     ),
                     new BasicAuthSlice(
-                        new WheelSlice(storage),
+                        new WheelSlice(
+                            storage, cache, deferred, index, catalog, changelog, parsers, reads
+                        ),
                         auth,
                         new Permission.ByName(perms, Action.Standard.WRITE)
                     )
@@ -87,7 +198,7 @@ public final class PySlice extends Slice.Wrap {
                         )
                     ),
                     new BasicAuthSlice(
-                        new SearchSlice(storage),
+                        new SearchSlice(index, catalog, changelog),
                         auth,
                         new Permission.ByName(perms, Action.Standard.WRITE)
                     )
@@ -98,7 +209,7 @@ public final class PySlice extends Slice.Wrap {
                         new RtRule.ByPath("(^\\/)|(.*(\\/[a-z0-9\\-]+?\\/?$))")
                     ),
                     new BasicAuthSlice(
-                        new SliceIndex(storage),
+                        new SliceIndex(storage, cache, changelog, reads),
                         auth,
                         new Permission.ByName(perms, Action.Standard.READ)
                     )
@@ -0,0 +1,51 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.util.List;
+
+/**
+ * XML-RPC method call: method name and parameter values. Scalar values are kept as strings,
+ * arrays as lists of values and structs as maps of member names to values.
+ * @since 1.0
+ */
+final class RpcCall {
+
+    /**
+     * Method name.
+     */
+    private final String method;
+
+    /**
+     * Parameter values.
+     */
+    private final List<Object> params;
+
+    /**
+     * Ctor.
+     * @param method Method name
+     * @param params Parameter values
+     */
+    RpcCall(final String method, final List<Object> params) {
+        this.method = method;
+        this.params = params;
+    }
+
+    /**
+     * Method name.
+     * @return Name
+     */
+    String method() {
+        return this.method;
+    }
+
+    /**
+     * Parameter values.
+     * @return Values
+     */
+    List<Object> params() {
+        return this.params;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * XML-RPC method response writer, response value is written directly to the response
+ * bytes. Arrays and structs are written between {@link #array()} or {@link #struct()} and
+ * {@link #end()} calls, struct member values follow {@link #member(String)} calls.
+ * @since 1.0
+ */
+final class RpcResponse {
+
+    /**
+     * Response start.
+     */
+    private static final String START =
+        "<?xml version='1.0'?>\n<methodResponse>\n<params>\n<param>\n";
+
+    /**
+     * Response end.
+     */
+    private static final String END = "</param>\n</params>\n</methodResponse>\n";
+
+    /**
+     * Response bytes.
+     */
+    private final ByteArrayOutputStream out;
+
+    /**
+     * Response end, is written by {@link #bytes()}.
+     */
+    private final String tail;
+
+    /**
+     * Started arrays, structs and struct members as {@code a}, {@code s} and {@code m}
+     * characters, innermost last.
+     */
+    private final StringBuilder open;
+
+    /**
+     * Ctor.
+     */
+    RpcResponse() {
+        this(RpcResponse.START, RpcResponse.END);
+    }
+
+    /**
+     * Ctor.
+     * @param head Response start
+     * @param tail Response end
+     */
+    private RpcResponse(final String head, final String tail) {
+        this.out = new ByteArrayOutputStream(512);
+        this.tail = tail;
+        this.open = new StringBuilder();
+        this.write(head);
+    }
+
+    /**
+     * Write string value.
+     * @param value Value
+     * @return This response
+     */
+    RpcResponse string(final String value) {
+        this.write("<value><string>");
+        this.text(value);
+        return this.write("</string></value>\n");
+    }
+
+    /**
+     * Write integer value.
+     * @param value Value
+     * @return This response
+     */
+    RpcResponse integer(final long value) {
+        return this.write("<value><int>").write(Long.toString(value)).write("</int></value>\n");
+    }
+
+    /**
+     * Write boolean value.
+     * @param value Value
+     * @return This response
+     */
+    RpcResponse bool(final boolean value) {
+        final String res;
+        if (value) {
+            res = "<value><boolean>1</boolean></value>\n";
+        } else {
+            res = "<value><boolean>0</boolean></value>\n";
+        }
+        return this.write(res);
+    }
+
+    /**
+     * Start array value.
+     * @return This response
+     */
+    RpcResponse array() {
+        this.open.append('a');
+        return this.write("<value><array><data>\n");
+    }
+
+    /**
+     * Start struct value.
+     * @return This response
+     */
+    RpcResponse struct() {
+        this.open.append('s');
+        return this.write("<value><struct>\n");
+    }
+
+    /**
+     * Start struct member, member value is written next.
+     * @param name Member name
+     * @return This response
+     */
+    RpcResponse member(final String name) {
+        if (this.open.length() > 0 && this.open.charAt(this.open.length() - 1) == 'm') {
+            this.write("</member>\n");
+            this.open.setLength(this.open.length() - 1);
+        }
+        this.open.append('m');
+        this.write("<member>\n<name>");
+        this.text(name);
+        return this.write("</name>\n");
+    }
+
+    /**
+     * End the innermost started array or struct.
+     * @return This response
+     */
+    RpcResponse end() {
+        if (this.open.charAt(this.open.length() - 1) == 'm') {
+            this.write("</member>\n");
+            this.open.setLength(this.open.length() - 1);
+        }
+        final char last = this.open.charAt(this.open.length() - 1);
+        this.open.setLength(this.open.length() - 1);
+        final String res;
+        if (last == 'a') {
+            res = "</data></array></value>\n";
+        } else {
+            res = "</struct></value>\n";
+        }
+        return this.write(res);
+    }
+
+    /**
+     * Response bytes.
+     * @return Bytes
+     */
+    byte[] bytes() {
+        this.write(this.tail);
+        return this.out.toByteArray();
+    }
+
+    /**
+     * XML-RPC fault response.
+     * @param code Fault code
+     * @param message Fault message
+     * @return Bytes
+     */
+    static byte[] fault(final int code, final String message) {
+        return new RpcResponse(
+            "<?xml version='1.0'?>\n<methodResponse>\n<fault>\n", "</fault>\n</methodResponse>\n"
+        ).struct()
+            .member("faultCode").integer(code)
+            .member("faultString").string(message)
+            .end().bytes();
+    }
+
+    /**
+     * Write escaped xml text.
+     * @param text Text
+     */
+    private void text(final String text) {
+        int start = 0;
+        for (int idx = 0; idx < text.length(); idx = idx + 1) {
+            final char chr = text.charAt(idx);
+            final String esc;
+            if (chr == '&') {
+                esc = "&amp;";
+            } else if (chr == '<') {
+                esc = "&lt;";
+            } else if (chr == '>') {
+                esc = "&gt;";
+            } else {
+                esc = null;
+            }
+            if (esc != null) {
+                this.write(text.substring(start, idx)).write(esc);
+                start = idx + 1;
+            }
+        }
+        this.write(text.substring(start));
+    }
+
+    /**
+     * Write raw xml.
+     * @param xml Xml
+     * @return This response
+     */
+    private RpcResponse write(final String xml) {
+        final byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        this.out.write(bytes, 0, bytes.length);
+        return this;
+    }
+}
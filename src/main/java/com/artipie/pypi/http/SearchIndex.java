@@ -0,0 +1,388 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.meta.DistFilename;
+import com.artipie.pypi.meta.PackageInfo;
+import com.artipie.pypi.meta.Version;
+import com.jcabi.log.Logger;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import io.reactivex.Flowable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index of the latest releases of repository projects for XML-RPC
+ * {@code search}. Project names and summaries are split into lowercase words, which are
+ * mapped to normalized project names in sorted maps, so search term words are looked up as
+ * word prefixes without storage access. The index build from storage is started when the
+ * index is created: package info of the latest distribution file of each project is read
+ * from its core metadata file or from the archive, with limited number of projects read at
+ * once. Searches wait for the build, failed build is started again by the next search.
+ * Uploaded packages are added to the index by {@link WheelSlice}. Only projects in the
+ * repository root are indexed, which is where search looks for them.
+ * @since 1.0
+ */
+final class SearchIndex {
+
+    /**
+     * Distribution files order by version from file name, see {@link Version}, files with
+     * the same version or with invalid names are ordered by key.
+     */
+    private static final Comparator<Key> BY_VERSION = Comparator.<Key, Version>comparing(
+        key -> {
+            final DistFilename dist = new DistFilename(new KeyLastPart(key).get());
+            final Version res;
+            if (dist.valid()) {
+                res = new Version(dist.version());
+            } else {
+                res = new Version("");
+            }
+            return res;
+        }
+    ).thenComparing(Key::string);
+
+    /**
+     * Max number of projects read at once while the index is built.
+     */
+    private static final int CONCURRENCY = 8;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Latest release by normalized project name.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * Normalized project names by name word.
+     */
+    private final NavigableMap<String, Set<String>> names;
+
+    /**
+     * Normalized project names by summary word.
+     */
+    private final NavigableMap<String, Set<String>> summaries;
+
+    /**
+     * Index build from storage, is started when the index is created.
+     */
+    private final AtomicReference<CompletableFuture<Void>> build;
+
+    /**
+     * Metadata parsers.
+     */
+    private final MetadataParsers parsers;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    SearchIndex(final Storage storage) {
+        this(storage, new MetadataParsers());
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param parsers Metadata parsers
+     */
+    SearchIndex(final Storage storage, final MetadataParsers parsers) {
+        this.storage = storage;
+        this.parsers = parsers;
+        this.entries = new ConcurrentHashMap<>();
+        this.names = new ConcurrentSkipListMap<>();
+        this.summaries = new ConcurrentSkipListMap<>();
+        this.build = new AtomicReference<>();
+        this.built();
+    }
+
+    /**
+     * Search the index. Term matches a project if each word of the term is a prefix of some
+     * word of the project field, {@code name} and {@code summary} fields are supported,
+     * other fields are ignored.
+     * @param query Search query
+     * @return Completion action with matched releases ordered by project name
+     */
+    CompletionStage<List<Entry>> search(final SearchQuery query) {
+        return this.built().thenApply(
+            nothing -> {
+                Set<String> found = null;
+                for (final String field : new String[] {"name", "summary"}) {
+                    final NavigableMap<String, Set<String>> words;
+                    if ("name".equals(field)) {
+                        words = this.names;
+                    } else {
+                        words = this.summaries;
+                    }
+                    for (final String term : query.terms(field)) {
+                        final Set<String> matched = SearchIndex.matches(words, term);
+                        if (found == null) {
+                            found = matched;
+                        } else if (query.all()) {
+                            found.retainAll(matched);
+                        } else {
+                            found.addAll(matched);
+                        }
+                    }
+                }
+                final List<Entry> res = new ArrayList<>(0);
+                if (found != null) {
+                    found.stream().sorted().map(this.entries::get)
+                        .filter(entry -> entry != null).forEach(res::add);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Add package release to the index, release replaces the indexed release of the project
+     * unless the indexed one is newer.
+     * @param info Package info
+     */
+    synchronized void add(final PackageInfo info) {
+        final Entry entry = new Entry(info);
+        final Entry prev = this.entries.get(entry.project);
+        if (prev == null || prev.parsed.compareTo(entry.parsed) <= 0) {
+            if (prev == null) {
+                for (final String word : SearchIndex.words(entry.project)) {
+                    this.names.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet())
+                        .add(entry.project);
+                }
+            } else {
+                for (final String word : SearchIndex.words(prev.summary)) {
+                    final Set<String> projects = this.summaries.get(word);
+                    if (projects != null) {
+                        projects.remove(entry.project);
+                        if (projects.isEmpty()) {
+                            this.summaries.remove(word);
+                        }
+                    }
+                }
+            }
+            for (final String word : SearchIndex.words(entry.summary)) {
+                this.summaries.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet())
+                    .add(entry.project);
+            }
+            this.entries.put(entry.project, entry);
+        }
+    }
+
+    /**
+     * Build the index from storage once, build is started again if it failed.
+     * @return Completion action
+     */
+    private CompletionStage<Void> built() {
+        CompletionStage<Void> res = this.build.get();
+        if (res == null) {
+            final CompletableFuture<Void> started = new CompletableFuture<>();
+            if (this.build.compareAndSet(null, started)) {
+                res = started;
+                this.load().whenComplete(
+                    (nothing, err) -> {
+                        if (err == null) {
+                            started.complete(null);
+                        } else {
+                            Logger.error(this, "Failed to build search index: %[exception]s", err);
+                            this.build.compareAndSet(started, null);
+                            started.completeExceptionally(err);
+                        }
+                    }
+                );
+            } else {
+                res = this.built();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Read the latest distribution files of the repository projects and add them to the
+     * index, files which can not be read are skipped.
+     * @return Completion action
+     */
+    private CompletionStage<Void> load() {
+        return this.storage.list(Key.ROOT).thenCompose(
+            keys -> {
+                final Map<String, List<Key>> projects = keys.stream().filter(
+                    key -> {
+                        final String[] parts = key.string().split("/");
+                        return parts.length == 2 && !parts[0].startsWith(".")
+                            && new DistFilename(parts[1]).valid();
+                    }
+                ).collect(Collectors.groupingBy(key -> key.string().split("/")[0]));
+                return Flowable.fromIterable(projects.values()).map(
+                    files -> files.stream().max(SearchIndex.BY_VERSION)
+                        .orElseThrow(IllegalStateException::new)
+                ).flatMapCompletable(
+                    latest -> CompletableInterop.fromFuture(
+                        MetadataStream.stored(this.storage, latest, this.parsers).handle(
+                            (info, err) -> {
+                                if (err == null) {
+                                    this.add(info);
+                                } else {
+                                    Logger.warn(
+                                        this, "Failed to index %s: %[exception]s",
+                                        latest.string(), err
+                                    );
+                                }
+                                return null;
+                            }
+                        )
+                    ),
+                    false, SearchIndex.CONCURRENCY
+                ).to(CompletableInterop.await());
+            }
+        );
+    }
+
+    /**
+     * Projects with field words matching the term.
+     * @param words Normalized project names by field word
+     * @param term Search term
+     * @return Normalized project names
+     */
+    private static Set<String> matches(final NavigableMap<String, Set<String>> words,
+        final String term) {
+        final Set<String> parts = SearchIndex.words(term);
+        Set<String> res = null;
+        for (final String part : parts) {
+            final Set<String> prefixed = new HashSet<>();
+            words.subMap(part, true, part + Character.MAX_VALUE, false).values()
+                .forEach(prefixed::addAll);
+            if (res == null) {
+                res = prefixed;
+            } else {
+                res.retainAll(prefixed);
+            }
+        }
+        if (res == null) {
+            res = new HashSet<>(0);
+        }
+        return res;
+    }
+
+    /**
+     * Distinct lowercase words of the text: runs of letters and digits.
+     * @param text Text
+     * @return Words in order of appearance
+     */
+    private static Set<String> words(final String text) {
+        final Set<String> res = new LinkedHashSet<>(0);
+        final StringBuilder word = new StringBuilder();
+        for (int idx = 0; idx <= text.length(); idx = idx + 1) {
+            if (idx < text.length() && Character.isLetterOrDigit(text.charAt(idx))) {
+                word.append(Character.toLowerCase(text.charAt(idx)));
+            } else if (word.length() > 0) {
+                res.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Indexed release.
+     * @since 1.0
+     */
+    static final class Entry {
+
+        /**
+         * Normalized project name.
+         */
+        private final String project;
+
+        /**
+         * Project name.
+         */
+        private final String name;
+
+        /**
+         * Version.
+         */
+        private final String version;
+
+        /**
+         * Parsed version.
+         */
+        private final Version parsed;
+
+        /**
+         * Summary.
+         */
+        private final String summary;
+
+        /**
+         * Ctor.
+         * @param info Package info
+         */
+        Entry(final PackageInfo info) {
+            this.project = new NormalizedProjectName.Simple(info.name()).value();
+            this.name = info.name();
+            this.version = info.version();
+            this.parsed = new Version(info.version());
+            this.summary = Entry.summary(info);
+        }
+
+        /**
+         * Project name.
+         * @return Name
+         */
+        String name() {
+            return this.name;
+        }
+
+        /**
+         * Release version.
+         * @return Version
+         */
+        String version() {
+            return this.version;
+        }
+
+        /**
+         * Release summary.
+         * @return Summary
+         */
+        String summary() {
+            return this.summary;
+        }
+
+        /**
+         * Summary of the package, summary header is optional in metadata files.
+         * @param info Package info
+         * @return Summary, empty if there is none
+         */
+        private static String summary(final PackageInfo info) {
+            final String res;
+            if (info instanceof PackageInfo.FromMetadata) {
+                res = ((PackageInfo.FromMetadata) info).headers().first("Summary").orElse("");
+            } else {
+                res = info.summary();
+            }
+            return res;
+        }
+    }
+}
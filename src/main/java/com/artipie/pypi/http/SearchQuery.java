@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query of XML-RPC {@code search} method: search spec, which maps package fields to the
+ * terms to look for, and the operator to combine the terms with, see
+ * <a href="https://warehouse.pypa.io/api-reference/xml-rpc.html">XML-RPC API</a>.
+ * @since 1.0
+ */
+final class SearchQuery {
+
+    /**
+     * Terms by field name.
+     */
+    private final Map<String, List<String>> spec;
+
+    /**
+     * Should all the terms match, {@code and} operator, or any of them.
+     */
+    private final boolean all;
+
+    /**
+     * Ctor.
+     * @param spec Terms by field name
+     * @param operator Operator, {@code and} or {@code or}
+     */
+    SearchQuery(final Map<String, List<String>> spec, final String operator) {
+        this.spec = spec;
+        this.all = !"or".equalsIgnoreCase(operator.trim());
+    }
+
+    /**
+     * Terms to look for in the field.
+     * @param field Field name
+     * @return Terms, empty if field is not in the spec
+     */
+    List<String> terms(final String field) {
+        return this.spec.getOrDefault(field, Collections.emptyList());
+    }
+
+    /**
+     * Should all the terms match?
+     * @return True for {@code and} operator, false for {@code or}
+     */
+    boolean all() {
+        return this.all;
+    }
+}
@@ -5,92 +5,122 @@
 package com.artipie.pypi.http;
 
 import com.artipie.asto.Content;
-import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
-import com.artipie.asto.ext.PublisherAs;
-import com.artipie.asto.streams.ContentAsStream;
 import com.artipie.http.ArtipieHttpException;
 import com.artipie.http.Headers;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RequestLinePrefix;
 import com.artipie.http.rs.RsFull;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.common.RsError;
+import com.artipie.http.slice.KeyFromPath;
 import com.artipie.pypi.NormalizedProjectName;
-import com.artipie.pypi.meta.Metadata;
+import com.artipie.pypi.meta.DistFilename;
+import com.artipie.pypi.meta.FileRecord;
+import com.artipie.pypi.meta.MetadataHeaders;
 import com.artipie.pypi.meta.PackageInfo;
-import com.jcabi.xml.XMLDocument;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.reactivestreams.Publisher;
 
 /**
- * Search slice.
+ * XML-RPC slice, see <a href="https://warehouse.pypa.io/api-reference/xml-rpc.html">XML-RPC
+ * API</a>. Projects are searched by name and summary in {@link SearchIndex}, read methods
+ * {@code list_packages}, {@code package_releases}, {@code release_urls} and
+ * {@code release_data} are answered from {@link Catalog}, mirrors read repository changes
+ * with {@code changelog_last_serial} and {@code changelog_since_serial} methods from
+ * {@link Changelog}. Other methods are answered with XML-RPC fault. Responses are written
+ * with {@link RpcResponse}.
  * @since 0.7
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
  */
-@SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.UnusedPrivateMethod"})
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class SearchSlice implements Slice {
 
     /**
-     * Storage.
+     * XML-RPC fault code of unknown method.
      */
-    private final Storage storage;
+    private static final int NO_METHOD = -32601;
+
+    /**
+     * XML-RPC fault code of invalid method parameters.
+     */
+    private static final int INVALID_PARAMS = -32602;
+
+    /**
+     * Search index.
+     */
+    private final SearchIndex index;
+
+    /**
+     * Catalog.
+     */
+    private final Catalog catalog;
+
+    /**
+     * Repository changelog.
+     */
+    private final Changelog changelog;
 
     /**
      * Ctor.
      * @param storage Storage
      */
     public SearchSlice(final Storage storage) {
-        this.storage = storage;
+        this(new SearchIndex(storage), new Catalog(storage), new Changelog(storage));
+    }
+
+    /**
+     * Ctor.
+     * @param index Search index
+     * @param catalog Catalog
+     * @param changelog Repository changelog
+     */
+    SearchSlice(final SearchIndex index, final Catalog catalog, final Changelog changelog) {
+        this.index = index;
+        this.catalog = catalog;
+        this.changelog = changelog;
     }
 
     @Override
     public Response response(final String line, final Iterable<Map.Entry<String, String>> headers,
         final Publisher<ByteBuffer> body) {
+        final String prefix = new RequestLinePrefix(
+            new KeyFromPath(new RequestLineFrom(line).uri().getPath()).string(), headers
+        ).get();
         return new AsyncResponse(
-            new NameFromXml(body).get().thenCompose(
-                name -> {
-                    final Key.From key = new Key.From(
-                        new NormalizedProjectName.Simple(name).value()
-                    );
-                    return this.storage.list(key).thenCompose(
-                        list -> {
-                            CompletableFuture<Content> res = new CompletableFuture<>();
-                            if (list.isEmpty()) {
-                                res.complete(new Content.From(SearchSlice.empty()));
-                            } else {
-                                final Key latest = list.stream().map(Key::string)
-                                    .max(Comparator.naturalOrder())
-                                    .map(Key.From::new)
-                                    .orElseThrow(IllegalStateException::new);
-                                res = this.storage.value(latest).thenCompose(
-                                    val -> new ContentAsStream<PackageInfo>(val).process(
-                                        input ->
-                                            new Metadata.FromArchive(input, latest.string()).read()
-                                    )
-                                ).thenApply(info -> new Content.From(SearchSlice.found(info)));
-                            }
-                            return res;
-                        }
-                    );
-                }
-            ).handle(
-                (content, throwable) -> {
+            new RpcCallFromXml(body).call().thenCompose(call -> this.answer(call, prefix)).handle(
+                (bytes, throwable) -> {
                     final Response res;
                     if (throwable == null) {
                         res = new RsFull(
-                            RsStatus.OK, new Headers.From("content-type", "text/xml"), content
+                            RsStatus.OK, new Headers.From("content-type", "text/xml"),
+                            new Content.From(bytes)
                         );
                     } else {
-                        res = new RsError(
-                            new ArtipieHttpException(RsStatus.INTERNAL_ERROR, throwable)
-                        );
+                        res = SearchSlice.error(throwable);
                     }
                     return res;
                 }
@@ -100,101 +130,567 @@ public final class SearchSlice implements Slice {
 
     /**
      * Response body when no packages found by given name.
-     * @return Xml string
+     * @return Xml bytes
      */
     static byte[] empty() {
-        return String.join(
-            "\n", "<methodResponse>",
-            "<params>",
-            "<param>",
-            "<value><array><data>",
-            "</data></array></value>",
-            "</param>",
-            "</params>",
-            "</methodResponse>"
-        ).getBytes(StandardCharsets.UTF_8);
+        return new RpcResponse().array().end().bytes();
     }
 
     /**
      * Response body xml for search result.
      * @param info Package info
-     * @return Xml string
+     * @return Xml bytes
      */
     static byte[] found(final PackageInfo info) {
-        return String.join(
-            "\n",
-            "<?xml version='1.0'?>",
-            "<methodResponse>",
-            "<params>",
-            "<param>",
-            "<value><array><data>",
-            "<value><struct>",
-            "<member>",
-            "<name>name</name>",
-            String.format("<value><string>%s</string></value>", info.name()),
-            "</member>",
-            "<member>",
-            "<name>summary</name>",
-            String.format("<value><string>%s</string></value>", info.summary()),
-            "</member>",
-            "<member>",
-            "<name>version</name>",
-            String.format("<value><string>%s</string></value>", info.version()),
-            "</member>",
-            "<member>",
-            "<name>_pypi_ordering</name>",
-            "<value><boolean>0</boolean></value>",
-            "</member>",
-            "</struct></value>",
-            "</data></array></value>",
-            "</param>",
-            "</params>",
-            "</methodResponse>"
-        ).getBytes(StandardCharsets.UTF_8);
+        return SearchSlice.found(Collections.singletonList(new SearchIndex.Entry(info)));
+    }
+
+    /**
+     * Response body xml for search results.
+     * @param found Found releases
+     * @return Xml bytes
+     */
+    static byte[] found(final List<SearchIndex.Entry> found) {
+        final RpcResponse res = new RpcResponse().array();
+        for (final SearchIndex.Entry entry : found) {
+            res.struct()
+                .member("name").string(entry.name())
+                .member("summary").string(entry.summary())
+                .member("version").string(entry.version())
+                .member("_pypi_ordering").bool(false)
+                .end();
+        }
+        return res.end().bytes();
+    }
+
+    /**
+     * Answer XML-RPC call.
+     * @param call Method call
+     * @param prefix Repository path prefix
+     * @return Completion action with response body
+     */
+    private CompletionStage<byte[]> answer(final RpcCall call, final String prefix) {
+        final CompletionStage<byte[]> res;
+        switch (call.method()) {
+            case "search":
+                res = this.index.search(SearchSlice.query(call)).thenApply(
+                    found -> {
+                        final byte[] bytes;
+                        if (found.isEmpty()) {
+                            bytes = SearchSlice.empty();
+                        } else {
+                            bytes = SearchSlice.found(found);
+                        }
+                        return bytes;
+                    }
+                );
+                break;
+            case "list_packages":
+            case "package_releases":
+            case "release_urls":
+            case "release_data":
+                res = this.read(call, prefix);
+                break;
+            case "changelog_last_serial":
+                res = this.changelog.last().thenApply(
+                    last -> new RpcResponse().integer(last).bytes()
+                );
+                break;
+            case "changelog_since_serial":
+                res = this.changes(call);
+                break;
+            default:
+                res = CompletableFuture.completedFuture(
+                    RpcResponse.fault(
+                        SearchSlice.NO_METHOD,
+                        String.format("Method '%s' is not supported", call.method())
+                    )
+                );
+                break;
+        }
+        return res;
+    }
+
+    /**
+     * Answer {@code changelog_since_serial} call: events after the serial as arrays of
+     * project name, version, timestamp, action and serial.
+     * @param call Method call
+     * @return Completion action with response body
+     */
+    private CompletionStage<byte[]> changes(final RpcCall call) {
+        long since;
+        try {
+            since = Long.parseLong(SearchSlice.param(call, 0).orElse("").trim());
+        } catch (final NumberFormatException ex) {
+            since = -1;
+        }
+        final CompletionStage<byte[]> res;
+        if (since < 0) {
+            res = CompletableFuture.completedFuture(
+                RpcResponse.fault(
+                    SearchSlice.INVALID_PARAMS,
+                    String.format("Invalid parameters of '%s' method", call.method())
+                )
+            );
+        } else {
+            res = this.changelog.since(since).thenApply(
+                events -> {
+                    final RpcResponse rsp = new RpcResponse().array();
+                    for (final Changelog.Event event : events) {
+                        rsp.array()
+                            .string(event.name())
+                            .string(event.version())
+                            .integer(event.timestamp())
+                            .string(event.action())
+                            .integer(event.serial())
+                            .end();
+                    }
+                    return rsp.end().bytes();
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Answer catalog read method call.
+     * @param call Method call
+     * @param prefix Repository path prefix
+     * @return Completion action with response body
+     */
+    private CompletionStage<byte[]> read(final RpcCall call, final String prefix) {
+        final CompletionStage<byte[]> res;
+        final Optional<String> name = SearchSlice.param(call, 0);
+        final Optional<String> version = SearchSlice.param(call, 1);
+        if ("list_packages".equals(call.method())) {
+            res = this.catalog.names().thenApply(
+                names -> {
+                    final RpcResponse rsp = new RpcResponse().array();
+                    names.forEach(rsp::string);
+                    return rsp.end().bytes();
+                }
+            );
+        } else if (!name.isPresent()
+            || !"package_releases".equals(call.method()) && !version.isPresent()) {
+            res = CompletableFuture.completedFuture(
+                RpcResponse.fault(
+                    SearchSlice.INVALID_PARAMS,
+                    String.format("Invalid parameters of '%s' method", call.method())
+                )
+            );
+        } else if ("package_releases".equals(call.method())) {
+            res = this.catalog.versions(name.get()).thenApply(
+                versions -> {
+                    final RpcResponse rsp = new RpcResponse().array();
+                    versions.forEach(rsp::string);
+                    return rsp.end().bytes();
+                }
+            );
+        } else if ("release_urls".equals(call.method())) {
+            res = this.catalog.release(name.get(), version.get()).thenApply(
+                rel -> {
+                    final RpcResponse rsp = new RpcResponse().array();
+                    rel.ifPresent(
+                        found -> found.files().forEach(
+                            dist -> SearchSlice.url(rsp, found, dist, prefix)
+                        )
+                    );
+                    return rsp.end().bytes();
+                }
+            );
+        } else {
+            res = this.catalog.release(name.get(), version.get()).thenApply(
+                rel -> {
+                    final RpcResponse rsp = new RpcResponse();
+                    if (rel.isPresent()) {
+                        SearchSlice.data(rsp, rel.get(), prefix);
+                    } else {
+                        rsp.struct().end();
+                    }
+                    return rsp.bytes();
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Write {@code release_urls} item.
+     * @param rsp Response
+     * @param rel Release
+     * @param dist Distribution file
+     * @param prefix Repository path prefix
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void url(final RpcResponse rsp, final Catalog.Release rel,
+        final Catalog.Dist dist, final String prefix) {
+        final DistFilename parsed = new DistFilename(dist.filename());
+        final String type;
+        if (dist.filename().endsWith(".whl")) {
+            type = "bdist_wheel";
+        } else if (dist.filename().endsWith(".egg")) {
+            type = "bdist_egg";
+        } else {
+            type = "sdist";
+        }
+        final Map<String, String> hashes = dist.record().map(FileRecord::hashes)
+            .orElse(Collections.emptyMap());
+        rsp.struct()
+            .member("comment_text").string("")
+            .member("digests").struct();
+        hashes.forEach((hash, hex) -> rsp.member(hash).string(hex));
+        rsp.end()
+            .member("downloads").integer(-1)
+            .member("filename").string(dist.filename())
+            .member("has_sig").bool(false)
+            .member("md5_digest").string(hashes.getOrDefault("md5", ""))
+            .member("packagetype").string(type)
+            .member("python_version").string(parsed.python().orElse("source"))
+            .member("requires_python").string(
+                dist.record().flatMap(FileRecord::requiresPython).orElse(
+                    rel.headers().first("Requires-Python").orElse("")
+                )
+            )
+            .member("size").integer(dist.size())
+            .member("upload_time_iso_8601").string(
+                dist.record().flatMap(FileRecord::uploadTime).orElse("")
+            )
+            .member("url").string(String.format("%s/%s", prefix, dist.key().string()))
+            .member("yanked").bool(false)
+            .end();
+    }
+
+    /**
+     * Write {@code release_data} struct.
+     * @param rsp Response
+     * @param rel Release
+     * @param prefix Repository path prefix
+     */
+    private static void data(final RpcResponse rsp, final Catalog.Release rel,
+        final String prefix) {
+        final MetadataHeaders meta = rel.headers();
+        final String name = meta.first("Name").orElse("");
+        rsp.struct()
+            .member("name").string(name)
+            .member("version").string(rel.version());
+        final String[][] fields = {
+            {"summary", "Summary"},
+            {"author", "Author"},
+            {"author_email", "Author-email"},
+            {"maintainer", "Maintainer"},
+            {"maintainer_email", "Maintainer-email"},
+            {"home_page", "Home-page"},
+            {"license", "License"},
+            {"keywords", "Keywords"},
+            {"platform", "Platform"},
+            {"download_url", "Download-URL"},
+            {"requires_python", "Requires-Python"},
+        };
+        for (final String[] field : fields) {
+            rsp.member(field[0]).string(meta.first(field[1]).orElse(""));
+        }
+        rsp.member("description").string(
+            meta.first("Description").orElse(meta.body())
+        );
+        final String[][] lists = {
+            {"classifiers", "Classifier"},
+            {"requires_dist", "Requires-Dist"},
+            {"project_url", "Project-URL"},
+        };
+        for (final String[] list : lists) {
+            rsp.member(list[0]).array();
+            meta.all(list[1]).forEach(rsp::string);
+            rsp.end();
+        }
+        rsp.member("package_url").string(
+            String.format("%s/%s/", prefix, new NormalizedProjectName.Simple(name).value())
+        ).end();
     }
 
     /**
-     * Python project name from request body xml.
+     * Search query from {@code search} call: search spec struct members with string or array
+     * of strings values and optional operator, {@code and} by default.
+     * @param call Method call
+     * @return Search query
+     */
+    private static SearchQuery query(final RpcCall call) {
+        final Map<String, List<String>> spec = new HashMap<>();
+        if (!call.params().isEmpty() && call.params().get(0) instanceof Map) {
+            for (final Map.Entry<?, ?> member : ((Map<?, ?>) call.params().get(0)).entrySet()) {
+                final List<String> terms = new ArrayList<>(1);
+                if (member.getValue() instanceof List) {
+                    for (final Object term : (List<?>) member.getValue()) {
+                        terms.add(term.toString());
+                    }
+                } else {
+                    terms.add(member.getValue().toString());
+                }
+                spec.put(member.getKey().toString(), terms);
+            }
+        }
+        final String operator;
+        if (call.params().size() > 1) {
+            operator = call.params().get(1).toString();
+        } else {
+            operator = "and";
+        }
+        return new SearchQuery(spec, operator);
+    }
+
+    /**
+     * String parameter of method call.
+     * @param call Method call
+     * @param idx Parameter index
+     * @return Parameter value if call has such string parameter
+     */
+    private static Optional<String> param(final RpcCall call, final int idx) {
+        final Optional<String> res;
+        if (call.params().size() > idx && call.params().get(idx) instanceof String) {
+            res = Optional.of((String) call.params().get(idx));
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * Error response, status of http errors is kept, malformed calls are bad requests, other
+     * errors are internal errors.
+     * @param throwable Error
+     * @return Response
+     */
+    private static Response error(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        final Response res;
+        if (cause instanceof ArtipieHttpException) {
+            res = new RsError((ArtipieHttpException) cause);
+        } else if (cause instanceof IllegalArgumentException) {
+            res = new RsError(new ArtipieHttpException(RsStatus.BAD_REQUEST, cause));
+        } else {
+            res = new RsError(new ArtipieHttpException(RsStatus.INTERNAL_ERROR, throwable));
+        }
+        return res;
+    }
+
+    /**
+     * XML-RPC call from request body xml. Body is read up to the size limit, bodies over the
+     * limit are rejected as soon as the limit is exceeded. Xml is read in one pass with
+     * StAX reader, DTDs and external entities are not supported.
      * @since 0.7
      */
-    static final class NameFromXml {
+    static final class RpcCallFromXml {
+
+        /**
+         * Default body size limit, XML-RPC calls are small.
+         */
+        private static final int LIMIT = 64 * 1024;
+
+        /**
+         * Xml reader factory.
+         */
+        private static final XMLInputFactory FACTORY = RpcCallFromXml.factory();
 
         /**
          * Xml body.
          */
         private final Publisher<ByteBuffer> body;
 
+        /**
+         * Body size limit in bytes.
+         */
+        private final int limit;
+
         /**
          * Ctor.
          * @param body Body
          */
-        NameFromXml(final Publisher<ByteBuffer> body) {
+        RpcCallFromXml(final Publisher<ByteBuffer> body) {
+            this(body, RpcCallFromXml.LIMIT);
+        }
+
+        /**
+         * Ctor.
+         * @param body Body
+         * @param limit Body size limit in bytes
+         */
+        RpcCallFromXml(final Publisher<ByteBuffer> body, final int limit) {
             this.body = body;
+            this.limit = limit;
         }
 
         /**
-         * Obtain project name to from xml.
-         * @return Name of the project
+         * Read XML-RPC call from xml.
+         * @return Method call
          */
-        CompletionStage<String> get() {
-            final String query = "//member/value/array/data/value/string/text()";
-            return new PublisherAs(this.body).string(StandardCharsets.UTF_8).thenApply(
-                xml -> new XMLDocument(xml)
-                    // @checkstyle LineLengthCheck (1 line)
-                    .nodes("/*[local-name()='methodCall']/*[local-name()='params']/*[local-name()='param']/*[local-name()='value']/*[local-name()='struct']/*[local-name()='member']")
-            ).thenApply(
-                nodes -> nodes.stream()
-                    .filter(
-                        node -> node.xpath("//member/name/text()").get(0).equals("name")
-                        && !node.xpath(query).isEmpty()
-                    )
-                    .findFirst()
-                    .map(node -> node.xpath(query))
-                    .map(node -> node.get(0))
-                    .orElseThrow(
-                        () -> new IllegalArgumentException("Invalid xml, project name not found")
-                    )
-            );
+        CompletionStage<RpcCall> call() {
+            return Flowable.fromPublisher(this.body).collect(
+                ByteArrayOutputStream::new,
+                (out, buf) -> {
+                    if (out.size() + buf.remaining() > this.limit) {
+                        throw new ArtipieHttpException(
+                            RsStatus.PAYLOAD_TOO_LARGE,
+                            String.format("Request body is over %d bytes", this.limit)
+                        );
+                    }
+                    final byte[] bytes = new byte[buf.remaining()];
+                    buf.get(bytes);
+                    out.write(bytes, 0, bytes.length);
+                }
+            ).map(out -> RpcCallFromXml.read(out.toByteArray())).to(SingleInterop.get());
+        }
+
+        /**
+         * Read XML-RPC call.
+         * @param xml Xml bytes
+         * @return Method call
+         */
+        private static RpcCall read(final byte[] xml) {
+            final RpcCall res;
+            try {
+                final XMLStreamReader reader = RpcCallFromXml.FACTORY
+                    .createXMLStreamReader(new ByteArrayInputStream(xml));
+                try {
+                    res = RpcCallFromXml.method(reader);
+                } finally {
+                    reader.close();
+                }
+            } catch (final XMLStreamException ex) {
+                throw new IllegalArgumentException("Invalid xml", ex);
+            }
+            return res;
+        }
+
+        /**
+         * Read method call element.
+         * @param reader Xml reader at document start
+         * @return Method call
+         * @throws XMLStreamException On xml error
+         */
+        private static RpcCall method(final XMLStreamReader reader) throws XMLStreamException {
+            if (reader.nextTag() != XMLStreamConstants.START_ELEMENT
+                || !"methodCall".equals(reader.getLocalName())) {
+                throw new IllegalArgumentException("Invalid xml, method call not found");
+            }
+            String method = "";
+            final List<Object> params = new ArrayList<>(2);
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("methodName".equals(reader.getLocalName())) {
+                    method = reader.getElementText().trim();
+                } else if ("params".equals(reader.getLocalName())) {
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        RpcCallFromXml.child(reader, "value");
+                        params.add(RpcCallFromXml.value(reader));
+                        reader.nextTag();
+                    }
+                } else {
+                    RpcCallFromXml.skip(reader);
+                }
+            }
+            return new RpcCall(method, params);
+        }
+
+        /**
+         * Read value, reader is at value start and is left at value end.
+         * @param reader Xml reader
+         * @return Value: string, list of values or map of values by member name
+         * @throws XMLStreamException On xml error
+         */
+        private static Object value(final XMLStreamReader reader) throws XMLStreamException {
+            final StringBuilder text = new StringBuilder();
+            int event = reader.next();
+            while (event != XMLStreamConstants.START_ELEMENT
+                && event != XMLStreamConstants.END_ELEMENT) {
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                    text.append(reader.getText());
+                }
+                event = reader.next();
+            }
+            final Object res;
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                res = text.toString();
+            } else {
+                if ("array".equals(reader.getLocalName())) {
+                    RpcCallFromXml.child(reader, "data");
+                    final List<Object> items = new ArrayList<>(1);
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        items.add(RpcCallFromXml.value(reader));
+                    }
+                    reader.nextTag();
+                    res = items;
+                } else if ("struct".equals(reader.getLocalName())) {
+                    final Map<String, Object> members = new LinkedHashMap<>();
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        String name = "";
+                        Object val = "";
+                        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                            if ("name".equals(reader.getLocalName())) {
+                                name = reader.getElementText().trim();
+                            } else if ("value".equals(reader.getLocalName())) {
+                                val = RpcCallFromXml.value(reader);
+                            } else {
+                                RpcCallFromXml.skip(reader);
+                            }
+                        }
+                        members.put(name, val);
+                    }
+                    res = members;
+                } else {
+                    res = reader.getElementText();
+                }
+                reader.nextTag();
+            }
+            return res;
+        }
+
+        /**
+         * Move reader to the next child element and check its name.
+         * @param reader Xml reader
+         * @param name Expected element name
+         * @throws XMLStreamException On xml error
+         */
+        private static void child(final XMLStreamReader reader, final String name)
+            throws XMLStreamException {
+            if (reader.getEventType() != XMLStreamConstants.START_ELEMENT
+                || !name.equals(reader.getLocalName())) {
+                if (reader.nextTag() != XMLStreamConstants.START_ELEMENT
+                    || !name.equals(reader.getLocalName())) {
+                    throw new IllegalArgumentException(
+                        String.format("Invalid xml, %s element expected", name)
+                    );
+                }
+            }
+        }
+
+        /**
+         * Skip element, reader is at element start and is left at element end.
+         * @param reader Xml reader
+         * @throws XMLStreamException On xml error
+         */
+        private static void skip(final XMLStreamReader reader) throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth = depth + 1;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth = depth - 1;
+                }
+            }
+        }
+
+        /**
+         * Xml reader factory without DTD and external entities support.
+         * @return Factory
+         */
+        private static XMLInputFactory factory() {
+            final XMLInputFactory res = XMLInputFactory.newInstance();
+            res.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            res.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            return res;
         }
     }
 }
@@ -5,32 +5,51 @@
 
 package com.artipie.pypi.http;
 
+import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
-import com.artipie.asto.ext.ContentDigest;
-import com.artipie.asto.ext.Digests;
-import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.http.ArtipieHttpException;
+import com.artipie.http.Headers;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
 import com.artipie.http.headers.ContentType;
+import com.artipie.http.headers.Header;
 import com.artipie.http.rq.RequestLineFrom;
 import com.artipie.http.rq.RequestLinePrefix;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithBody;
 import com.artipie.http.rs.RsWithHeaders;
 import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.common.RsError;
 import com.artipie.http.slice.KeyFromPath;
-import hu.akarnokd.rxjava2.interop.SingleInterop;
-import io.reactivex.Flowable;
-import io.reactivex.Single;
+import com.artipie.pypi.meta.Generation;
+import com.artipie.pypi.meta.Projects;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import org.reactivestreams.Publisher;
 
 /**
- * SliceIndex returns formatted html output with index of repository packages.
+ * SliceIndex returns html or json output with index of repository packages, format
+ * is chosen by request {@code Accept} header, see {@link IndexFormat}.
+ * Project pages are rendered on upload and are served from storage as is, see
+ * {@link IndexPage}, repository root page lists registered {@link Projects}.
+ * Project pages are tagged with project {@link Generation}, requests with
+ * {@code If-None-Match} header of current tag are answered with 304 status.
+ * Rendered pages are kept in {@link IndexCache}, so that frequently requested pages are
+ * served from memory. Repository root pages are sent with {@code X-PyPI-Last-Serial} header
+ * of the last {@link Changelog} serial, which is read before the page, so the page is at least
+ * as recent as the serial. Changelog records uploads to the repository root only, so pages of
+ * nested paths are sent without the serial. Requests of projects without files are answered
+ * with 404 status and nothing is saved for them, requests with repository path prefix, which
+ * is not valid to be a part of storage key, are answered with 400 status, see
+ * {@link IndexPage#valid(String)}.
  *
  * @since 0.2
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
@@ -42,12 +61,61 @@ final class SliceIndex implements Slice {
      */
     private final Storage storage;
 
+    /**
+     * Index pages cache.
+     */
+    private final IndexCache cache;
+
+    /**
+     * Repository changelog.
+     */
+    private final Changelog changelog;
+
+    /**
+     * Max number of files records read at once by page render.
+     */
+    private final int reads;
+
     /**
      * Ctor.
      * @param storage Storage
      */
     SliceIndex(final Storage storage) {
+        this(storage, new IndexCache());
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Index pages cache
+     */
+    SliceIndex(final Storage storage, final IndexCache cache) {
+        this(storage, cache, new Changelog(storage));
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Index pages cache
+     * @param changelog Repository changelog
+     */
+    SliceIndex(final Storage storage, final IndexCache cache, final Changelog changelog) {
+        this(storage, cache, changelog, IndexPage.CONCURRENCY);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Index pages cache
+     * @param changelog Repository changelog
+     * @param reads Max number of files records read at once by page render
+     */
+    SliceIndex(final Storage storage, final IndexCache cache, final Changelog changelog,
+        final int reads) {
         this.storage = storage;
+        this.cache = cache;
+        this.changelog = changelog;
+        this.reads = reads;
     }
 
     @Override
@@ -58,38 +126,226 @@ final class SliceIndex implements Slice {
     ) {
         final Key rqkey = new KeyFromPath(new RequestLineFrom(line).uri().toString());
         final String prefix = new RequestLinePrefix(rqkey.string(), headers).get();
-        return new AsyncResponse(
-            SingleInterop.fromFuture(this.storage.list(rqkey))
-                .flatMapPublisher(Flowable::fromIterable)
-                .flatMapSingle(
-                    key -> Single.fromFuture(
-                        this.storage.value(key).thenCompose(
-                            value -> new ContentDigest(value, Digests.SHA256).hex()
-                        ).thenApply(
-                            hex -> String.format(
-                                "<a href=\"%s#sha256=%s\">%s</a><br/>",
-                                String.format("%s/%s", prefix, key.string()),
-                                hex,
-                                new KeyLastPart(key).get()
+        final IndexFormat format = IndexFormat.of(headers);
+        final PageEncoding encoding = PageEncoding.of(headers);
+        final Response res;
+        if (!IndexPage.valid(prefix)) {
+            res = new RsWithStatus(RsStatus.BAD_REQUEST);
+        } else if (rqkey.parts().stream().anyMatch(part -> part.startsWith("."))) {
+            res = new RsWithStatus(RsStatus.NOT_FOUND);
+        } else {
+            res = new AsyncResponse(
+                this.serial(rqkey).thenCompose(
+                    last -> this.page(rqkey, prefix, format, encoding, headers).thenApply(
+                        rsp -> last.<Response>map(
+                            serial -> new RsWithHeaders(
+                                rsp, new Header("X-PyPI-Last-Serial", String.valueOf(serial))
                             )
+                        ).orElse(rsp)
+                    )
+                ).handle(
+                    (rsp, err) -> {
+                        final Response page;
+                        if (err == null) {
+                            page = rsp;
+                        } else {
+                            page = SliceIndex.error(err);
+                        }
+                        return page;
+                    }
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * The last changelog serial for the requested page, changelog records uploads to the
+     * repository root only, so the serial is not read for the pages of nested paths.
+     * @param rqkey Requested key
+     * @return Completion action with the last serial, empty for the pages of nested paths
+     */
+    private CompletionStage<Optional<Long>> serial(final Key rqkey) {
+        final CompletionStage<Optional<Long>> res;
+        if (rqkey.parts().size() > 1) {
+            res = CompletableFuture.completedFuture(Optional.empty());
+        } else {
+            res = this.changelog.last().thenApply(Optional::of);
+        }
+        return res;
+    }
+
+    /**
+     * Index page response.
+     * @param rqkey Requested key
+     * @param prefix Repository path prefix
+     * @param format Page format
+     * @param encoding Page encoding
+     * @param headers Request headers
+     * @return Completion action with response
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Response> page(final Key rqkey, final String prefix,
+        final IndexFormat format, final PageEncoding encoding,
+        final Iterable<Map.Entry<String, String>> headers) {
+        final CompletionStage<Response> res;
+        if (rqkey.string().isEmpty()) {
+            res = this.cache.page(
+                Key.ROOT, prefix, format, encoding,
+                () -> new Projects(this.storage, Key.ROOT).names().thenCompose(
+                    names -> new PublisherAs(
+                        new Content.From(encoding.encode(format.root(prefix, names)))
+                    ).bytes()
+                ).thenApply(bytes -> new IndexCache.Page(Optional.empty(), bytes))
+            ).thenApply(
+                page -> SliceIndex.page(format, encoding, page.body(), Headers.EMPTY)
+            );
+        } else {
+            res = this.cache.page(
+                rqkey, prefix, format, encoding,
+                () -> this.load(rqkey, prefix, format, encoding)
+            ).thenApply(
+                page -> {
+                    final String tag = page.tag().get();
+                    final Headers etag = new Headers.From("ETag", tag);
+                    final Response rsp;
+                    if (new IfNoneMatch(headers).matches(tag)) {
+                        rsp = new RsWithHeaders(
+                            new RsWithStatus(RsStatus.NOT_MODIFIED),
+                            SliceIndex.caching(etag)
+                        );
+                    } else {
+                        rsp = SliceIndex.page(format, encoding, page.body(), etag);
+                    }
+                    return rsp;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Load project page from storage.
+     * @param project Project key
+     * @param prefix Repository path prefix
+     * @param format Page format
+     * @param encoding Page encoding
+     * @return Completion action with the page tagged with project generation, page is loaded
+     *  again if generation was changed while page was read, fails with not found error if
+     *  project has no files
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<IndexCache.Page> load(final Key project, final String prefix,
+        final IndexFormat format, final PageEncoding encoding) {
+        final Generation generation = new Generation(this.storage, project);
+        return generation.value().thenCompose(
+            gen -> new IndexPage(this.storage, project, prefix, this.reads)
+                .content(format, encoding)
+                .thenApply(
+                    content -> content.orElseThrow(
+                        () -> new ArtipieHttpException(
+                            RsStatus.NOT_FOUND,
+                            String.format("Project %s not found", project.string())
                         )
                     )
                 )
-                .collect(StringBuilder::new, StringBuilder::append)
-                .<Response>map(
-                    resp -> new RsWithBody(
-                        new RsWithHeaders(
-                            new RsWithStatus(RsStatus.OK),
-                            new ContentType("text/html")
-                        ),
-                        String.format(
-                            "<!DOCTYPE html>\n<html>\n  </body>\n%s\n</body>\n</html>",
-                            resp.toString()
-                        ),
-                        StandardCharsets.UTF_8
+                .thenCompose(content -> new PublisherAs(content).bytes())
+                .thenCompose(
+                    bytes -> generation.value().thenCompose(
+                        after -> {
+                            final CompletionStage<IndexCache.Page> res;
+                            if (after.equals(gen)) {
+                                res = CompletableFuture.completedFuture(
+                                    new IndexCache.Page(
+                                        Optional.of(
+                                            String.format(
+                                                "\"%d-%s%s\"", gen,
+                                                format.name().toLowerCase(Locale.US),
+                                                SliceIndex.suffix(encoding)
+                                            )
+                                        ),
+                                        bytes
+                                    )
+                                );
+                            } else {
+                                res = this.load(project, prefix, format, encoding);
+                            }
+                            return res;
+                        }
                     )
                 )
         );
     }
 
+    /**
+     * Error response, status of http errors is kept, other errors are internal errors.
+     * @param throwable Error
+     * @return Response
+     */
+    private static Response error(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        final Response res;
+        if (cause instanceof ArtipieHttpException) {
+            res = new RsError((ArtipieHttpException) cause);
+        } else {
+            res = new RsError(new ArtipieHttpException(RsStatus.INTERNAL_ERROR, throwable));
+        }
+        return res;
+    }
+
+    /**
+     * Entity tag suffix of encoded page, encoded variants are tagged separately.
+     * @param encoding Page encoding
+     * @return Suffix
+     */
+    private static String suffix(final PageEncoding encoding) {
+        final String res;
+        if (encoding == PageEncoding.IDENTITY) {
+            res = "";
+        } else {
+            res = String.format("-%s", encoding.encoding());
+        }
+        return res;
+    }
+
+    /**
+     * Index page response.
+     * @param format Page format
+     * @param encoding Page encoding
+     * @param body Page content
+     * @param etag Entity tag headers
+     * @return Response
+     */
+    private static Response page(final IndexFormat format, final PageEncoding encoding,
+        final byte[] body, final Headers etag) {
+        Headers headers = new Headers.From(
+            SliceIndex.caching(etag), new ContentType(format.contentType())
+        );
+        if (encoding != PageEncoding.IDENTITY) {
+            headers = new Headers.From(
+                headers, new Header("Content-Encoding", encoding.encoding())
+            );
+        }
+        return new RsWithBody(
+            new RsWithHeaders(new RsWithStatus(RsStatus.OK), headers),
+            body
+        );
+    }
+
+    /**
+     * Caching headers: index pages may be stored by clients and proxies, but should be
+     * revalidated with entity tag on each use, page format and encoding depend on
+     * {@code Accept} and {@code Accept-Encoding} request headers.
+     * @param etag Entity tag headers
+     * @return Headers
+     */
+    private static Headers caching(final Headers etag) {
+        return new Headers.From(
+            etag, new Header("Cache-Control", "no-cache"),
+            new Header("Vary", "Accept, Accept-Encoding")
+        );
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.pypi.meta.PackageInfo;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Upload form fields sent by twine along with the {@code content} file part, see
+ * <a href="https://warehouse.pypa.io/api-reference/legacy.html#upload-api">upload API</a>.
+ * Fields are trusted only as far as they are verified: package name and version against
+ * the file name, digests against the uploaded bytes and the rest against the archive
+ * metadata later, see {@link UploadVerifier}.
+ * @since 1.0
+ */
+final class UploadForm {
+
+    /**
+     * Form fields by name.
+     */
+    private final Map<String, String> fields;
+
+    /**
+     * Ctor.
+     */
+    UploadForm() {
+        this.fields = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Add form field.
+     * @param name Field name
+     * @param value Field value
+     */
+    void put(final String name, final String value) {
+        this.fields.put(name, value.trim());
+    }
+
+    /**
+     * Form field value.
+     * @param name Field name
+     * @return Value if field is present and not empty
+     */
+    Optional<String> field(final String name) {
+        return Optional.ofNullable(this.fields.get(name)).filter(val -> !val.isEmpty());
+    }
+
+    /**
+     * Do digests sent with the form match file digests? Digests are sent as
+     * {@code <hash name>_digest} fields, hex digests are compared ignoring case.
+     * @param digests File hex digests by hash name
+     * @return True if every sent digest of known hash matches
+     */
+    boolean matches(final Map<String, String> digests) {
+        return digests.entrySet().stream().allMatch(
+            digest -> this.field(String.format("%s_digest", digest.getKey()))
+                .map(sent -> sent.equalsIgnoreCase(digest.getValue()))
+                .orElse(true)
+        );
+    }
+
+    /**
+     * Package info from form fields.
+     * @return Package info if both name and version fields are present
+     */
+    Optional<PackageInfo> info() {
+        final Optional<PackageInfo> res;
+        if (this.field("name").isPresent() && this.field("version").isPresent()) {
+            res = Optional.of(new UploadForm.FormInfo(this));
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * Package info from upload form. Metadata file is not sent with the form, it is
+     * available only from the archive.
+     * @since 1.0
+     */
+    private static final class FormInfo implements PackageInfo {
+
+        /**
+         * Upload form.
+         */
+        private final UploadForm form;
+
+        /**
+         * Ctor.
+         * @param form Upload form
+         */
+        FormInfo(final UploadForm form) {
+            this.form = form;
+        }
+
+        @Override
+        public String name() {
+            return this.form.field("name").get();
+        }
+
+        @Override
+        public String version() {
+            return this.form.field("version").get();
+        }
+
+        @Override
+        public String summary() {
+            return this.form.field("summary").orElse("");
+        }
+
+        @Override
+        public Optional<String> requiresPython() {
+            return this.form.field("requires_python");
+        }
+
+        @Override
+        public Optional<String> metadata() {
+            return Optional.empty();
+        }
+    }
+}
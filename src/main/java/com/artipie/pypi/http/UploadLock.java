@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.http.ArtipieHttpException;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.pypi.meta.ValidFilename;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock of the uploaded distribution file key. Lock is acquired by file name from the part
+ * headers before the file is received, so that upload of existing file or of the file being
+ * uploaded by another request is rejected with {@code 409 Conflict} right away. Locks are
+ * held in memory and guard concurrent uploads within one repository instance, uploads from
+ * other instances are caught by the existence check right before the file is moved.
+ * @since 1.0
+ */
+final class UploadLock {
+
+    /**
+     * Keys of the files being uploaded.
+     */
+    private final Set<String> uploading;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Upload root key.
+     */
+    private final Key root;
+
+    /**
+     * Locked key.
+     */
+    private final AtomicReference<Key> locked;
+
+    /**
+     * Ctor.
+     * @param uploading Keys of the files being uploaded
+     * @param storage Storage
+     * @param root Upload root key
+     */
+    UploadLock(final Set<String> uploading, final Storage storage, final Key root) {
+        this.uploading = uploading;
+        this.storage = storage;
+        this.root = root;
+        this.locked = new AtomicReference<>();
+    }
+
+    /**
+     * Acquire lock of the file, lock is not acquired if file name is not a distribution file
+     * name, such upload is rejected later.
+     * @param filename File name
+     * @return Completion action, fails with conflict error if file exists or is being uploaded
+     */
+    CompletionStage<Void> acquire(final String filename) {
+        return ValidFilename.project(filename).map(
+            project -> {
+                final Key target = new Key.From(this.root, project, filename);
+                final CompletionStage<Void> res;
+                if (this.uploading.add(target.string())) {
+                    this.locked.set(target);
+                    res = this.absent(target);
+                } else {
+                    res = UploadLock.conflict(target, "is being uploaded");
+                }
+                return res;
+            }
+        ).orElseGet(() -> CompletableFuture.allOf());
+    }
+
+    /**
+     * Check file does not exist.
+     * @param target File key
+     * @return Completion action, fails with conflict error if file exists
+     */
+    CompletionStage<Void> absent(final Key target) {
+        return this.storage.exists(target).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = UploadLock.conflict(target, "already exists");
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Release lock if it was acquired.
+     */
+    void release() {
+        final Key target = this.locked.getAndSet(null);
+        if (target != null) {
+            this.uploading.remove(target.string());
+        }
+    }
+
+    /**
+     * Conflict error.
+     * @param target File key
+     * @param reason Reason of conflict
+     * @return Failed completion action
+     */
+    private static CompletionStage<Void> conflict(final Key target, final String reason) {
+        final CompletableFuture<Void> res = new CompletableFuture<>();
+        res.completeExceptionally(
+            new ArtipieHttpException(
+                RsStatus.CONFLICT, String.format("File %s %s", target.string(), reason)
+            )
+        );
+        return res;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.ArtipieException;
+import com.artipie.pypi.meta.FileRecord;
+import com.artipie.pypi.meta.PackageInfo;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.codec.binary.Hex;
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.reactivestreams.Publisher;
+
+/**
+ * Uploaded distribution file stream: file digests and size are calculated and package
+ * metadata is read (see {@link MetadataStream}) while file bytes are passing to storage,
+ * so that uploaded file is not read back from storage. If package info is already known,
+ * archive is not parsed.
+ * @since 1.0
+ */
+final class UploadStream {
+
+    /**
+     * File name.
+     */
+    private final String name;
+
+    /**
+     * Sha256 digest.
+     */
+    private final MessageDigest sha;
+
+    /**
+     * Md5 digest.
+     */
+    private final MessageDigest md;
+
+    /**
+     * Blake2b digest with 256 bits output.
+     */
+    private final Blake2bDigest blake;
+
+    /**
+     * Bytes count.
+     */
+    private final AtomicLong size;
+
+    /**
+     * Origin file content.
+     */
+    private final Flowable<ByteBuffer> origin;
+
+    /**
+     * Package metadata.
+     */
+    private final CompletionStage<PackageInfo> meta;
+
+    /**
+     * Is package metadata read from the file?
+     */
+    private final boolean parsed;
+
+    /**
+     * Hex digests by name, calculated when content is read completely.
+     */
+    private final Map<String, String> hashes;
+
+    /**
+     * Ctor.
+     * @param origin Origin file content
+     * @param name File name
+     */
+    UploadStream(final Publisher<ByteBuffer> origin, final String name,
+        final MetadataParsers parsers) {
+        this(new MetadataStream(origin, name, parsers), name);
+    }
+
+    /**
+     * Ctor for the file with known package info, archive is not parsed.
+     * @param origin Origin file content
+     * @param name File name
+     * @param info Package info
+     */
+    UploadStream(final Publisher<ByteBuffer> origin, final String name, final PackageInfo info) {
+        this(Flowable.fromPublisher(origin), name, CompletableFuture.completedFuture(info), false);
+    }
+
+    /**
+     * Ctor.
+     * @param meta Metadata stream of the file
+     * @param name File name
+     */
+    private UploadStream(final MetadataStream meta, final String name) {
+        this(meta.content(), name, meta.info(), true);
+    }
+
+    /**
+     * Primary ctor.
+     * @param origin Origin file content
+     * @param name File name
+     * @param meta Package metadata
+     * @param parsed Is package metadata read from the file
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private UploadStream(final Flowable<ByteBuffer> origin, final String name,
+        final CompletionStage<PackageInfo> meta, final boolean parsed) {
+        this.origin = origin;
+        this.name = name;
+        this.sha = UploadStream.digest("SHA-256");
+        this.md = UploadStream.digest("MD5");
+        // @checkstyle MagicNumberCheck (1 line)
+        this.blake = new Blake2bDigest(256);
+        this.size = new AtomicLong();
+        this.meta = meta;
+        this.parsed = parsed;
+        this.hashes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * File name.
+     * @return Name
+     */
+    String filename() {
+        return this.name;
+    }
+
+    /**
+     * File content to save, content can be read only once.
+     * @return Content
+     */
+    Publisher<ByteBuffer> content() {
+        return this.origin
+            .doOnNext(
+                buf -> {
+                    final byte[] bytes = new byte[buf.remaining()];
+                    buf.duplicate().get(bytes);
+                    this.sha.update(bytes);
+                    this.md.update(bytes);
+                    this.blake.update(bytes, 0, bytes.length);
+                    this.size.addAndGet(bytes.length);
+                }
+            )
+            .doOnComplete(
+                () -> {
+                    final byte[] blk = new byte[this.blake.getDigestSize()];
+                    this.blake.doFinal(blk, 0);
+                    this.hashes.put("sha256", Hex.encodeHexString(this.sha.digest()));
+                    this.hashes.put("md5", Hex.encodeHexString(this.md.digest()));
+                    this.hashes.put("blake2_256", Hex.encodeHexString(blk));
+                }
+            );
+    }
+
+    /**
+     * Package metadata read from the file or given on creation.
+     * @return Completion action with package info
+     */
+    CompletionStage<PackageInfo> info() {
+        return this.meta;
+    }
+
+    /**
+     * Is package metadata read from the file?
+     * @return True if metadata was read from the file, false if it was given on creation
+     */
+    boolean parsed() {
+        return this.parsed;
+    }
+
+    /**
+     * File record, is available after the content was read completely.
+     * @return Record with file digests and size
+     */
+    FileRecord record() {
+        return new FileRecord(this.digests().get("sha256"), this.size.get())
+            .withHashes(this.digests());
+    }
+
+    /**
+     * File digests, are available after the content was read completely. Digests are
+     * named as in upload form fields without {@code _digest} suffix.
+     * @return Hex digests by name: sha256, md5, blake2_256
+     */
+    Map<String, String> digests() {
+        if (this.hashes.isEmpty()) {
+            throw new IllegalStateException("Uploaded file was not read completely");
+        }
+        return Collections.unmodifiableMap(this.hashes);
+    }
+
+    /**
+     * Message digest instance.
+     * @param algorithm Algorithm name
+     * @return Digest
+     */
+    private static MessageDigest digest(final String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new ArtipieException(ex);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.meta.FileRecords;
+import com.artipie.pypi.meta.PackageInfo;
+import com.artipie.pypi.meta.Projects;
+import com.artipie.pypi.meta.ValidFilename;
+import com.jcabi.log.Logger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Verifier of the file accepted by upload form fields, see {@link UploadForm}. Verifier
+ * reads package metadata from the saved archive and checks that it matches the form: on
+ * success wheel core metadata is added to the file record and python requirement of the
+ * record is replaced with the one from the archive, otherwise the file and its record are
+ * removed, and if the project has no other files, the project is removed from the
+ * {@link Projects} registry. Project index
+ * pages are invalidated in both cases and queued for rendering if project still has files.
+ * Project generation is increased in both cases and is never decreased: the page listing
+ * the rejected file could have been served with the increased generation tag already.
+ * @since 1.0
+ */
+final class UploadVerifier {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Index pages cache.
+     */
+    private final IndexCache cache;
+
+    /**
+     * Queue of projects to render index pages of.
+     */
+    private final IndexQueue queue;
+
+    /**
+     * Metadata parsers.
+     */
+    private final MetadataParsers parsers;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Index pages cache
+     * @param queue Queue of projects to render index pages of
+     * @param parsers Metadata parsers
+     */
+    UploadVerifier(final Storage storage, final IndexCache cache, final IndexQueue queue,
+        final MetadataParsers parsers) {
+        this.storage = storage;
+        this.cache = cache;
+        this.queue = queue;
+        this.parsers = parsers;
+    }
+
+    /**
+     * Verify uploaded file.
+     * @param project Project key
+     * @param prefix Index page links prefix
+     * @param file Distribution file key
+     * @param expected Package info from the upload form
+     * @return Completion action with true if file was verified, false if it was removed
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    CompletionStage<Boolean> verify(final Key project, final String prefix, final Key file,
+        final PackageInfo expected) {
+        return this.storage.value(file).thenCompose(
+            val -> new MetadataStream(val, file.string(), this.parsers).read()
+        ).handle(
+            (info, err) -> {
+                final CompletionStage<Boolean> res;
+                if (err == null && UploadVerifier.matches(info, expected, file)) {
+                    res = this.accept(file, info).thenApply(nothing -> true);
+                } else {
+                    if (err == null) {
+                        Logger.warn(
+                            this, "Uploaded file %s does not match upload form, removing it",
+                            file.string()
+                        );
+                    } else {
+                        Logger.warn(
+                            this, "Failed to read uploaded file %s, removing it: %[exception]s",
+                            file.string(), err
+                        );
+                    }
+                    res = this.reject(file)
+                        .thenCompose(nothing -> this.unlisted(project))
+                        .thenApply(nothing -> false);
+                }
+                return res;
+            }
+        ).thenCompose(Function.identity()).thenCompose(
+            valid -> new IndexPage(this.storage, project, prefix).invalidate()
+                .thenCompose(nothing -> this.storage.list(project))
+                .thenCompose(
+                    files -> {
+                        this.cache.invalidate(project);
+                        final CompletionStage<Void> res;
+                        if (files.isEmpty()) {
+                            this.cache.invalidate(Key.ROOT);
+                            res = CompletableFuture.allOf();
+                        } else {
+                            res = this.queue.add(project, prefix);
+                        }
+                        return res.thenApply(nothing -> valid);
+                    }
+                )
+        );
+    }
+
+    /**
+     * Add archive metadata to the file record, python requirement is taken from the archive
+     * only: requirement of the upload form is removed if the archive does not specify one.
+     * @param file Distribution file key
+     * @param info Package info from archive
+     * @return Completion action
+     */
+    private CompletionStage<Void> accept(final Key file, final PackageInfo info) {
+        final FileRecords records = new FileRecords(this.storage);
+        return WheelSlice.metadata(this.storage, file, info).thenCompose(
+            sha -> records.get(file).thenApply(
+                rec -> sha.map(rec::withMetadata).orElse(rec)
+            )
+        ).thenApply(
+            rec -> info.requiresPython()
+                .filter(spec -> !spec.isEmpty())
+                .map(rec::withRequiresPython).orElseGet(rec::withoutRequiresPython)
+        ).thenCompose(rec -> records.save(file, rec));
+    }
+
+    /**
+     * Remove file and its record.
+     * @param file Distribution file key
+     * @return Completion action
+     */
+    private CompletionStage<Void> reject(final Key file) {
+        return this.storage.exists(file).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = this.storage.delete(file);
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        ).thenCompose(nothing -> new FileRecords(this.storage).delete(file));
+    }
+
+    /**
+     * Remove project from the registry if it has no files left.
+     * @param project Project key
+     * @return Completion action
+     */
+    private CompletionStage<Void> unlisted(final Key project) {
+        return this.storage.list(project).thenCompose(
+            files -> {
+                final CompletionStage<Void> res;
+                if (files.isEmpty()) {
+                    res = new Projects(this.storage, project.parent().orElse(Key.ROOT))
+                        .remove(new KeyLastPart(project).get());
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Does archive metadata match the upload form?
+     * @param actual Package info from archive
+     * @param expected Package info from upload form
+     * @param file Distribution file key
+     * @return True if name and version are the same and match file name
+     */
+    private static boolean matches(final PackageInfo actual, final PackageInfo expected,
+        final Key file) {
+        final String filename = file.string().substring(file.string().lastIndexOf('/') + 1);
+        return new NormalizedProjectName.Simple(actual.name()).value().equals(
+            new NormalizedProjectName.Simple(expected.name()).value()
+        ) && actual.version().equals(expected.version())
+            && new ValidFilename(actual, filename).valid();
+    }
+}
@@ -9,7 +9,8 @@ import com.artipie.ArtipieException;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
-import com.artipie.asto.streams.ContentAsStream;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.http.ArtipieHttpException;
 import com.artipie.http.Headers;
 import com.artipie.http.Response;
@@ -17,27 +18,55 @@ import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
 import com.artipie.http.headers.ContentDisposition;
 import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RequestLinePrefix;
 import com.artipie.http.rq.multipart.RqMultipart;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithStatus;
 import com.artipie.http.rs.common.RsError;
 import com.artipie.http.slice.KeyFromPath;
 import com.artipie.pypi.NormalizedProjectName;
-import com.artipie.pypi.meta.Metadata;
+import com.artipie.pypi.meta.CoreMetadata;
+import com.artipie.pypi.meta.DistFilename;
+import com.artipie.pypi.meta.FileRecord;
+import com.artipie.pypi.meta.FileRecords;
 import com.artipie.pypi.meta.PackageInfo;
+import com.artipie.pypi.meta.Projects;
 import com.artipie.pypi.meta.ValidFilename;
 import com.jcabi.log.Logger;
 import hu.akarnokd.rxjava2.interop.SingleInterop;
 import io.reactivex.Flowable;
+import io.reactivex.Maybe;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import org.reactivestreams.Publisher;
 
 /**
- * WheelSlice save and manage whl and tgz entries.
+ * WheelSlice save and manage whl and tgz entries. Along with the entry, its
+ * {@link FileRecord} and wheel {@link CoreMetadata} are saved and project is registered in
+ * {@link Projects}. Then project {@link IndexPage}s are invalidated, cached pages of the
+ * project and repository root page are invalidated in {@link IndexCache}, and the response
+ * is sent: pages are rendered off the request by {@link IndexQueue} or on the first access.
+ * Packages uploaded to the repository root are added to {@link SearchIndex} and
+ * {@link Catalog}, and the upload is recorded in {@link Changelog} before the response.
+ * Package metadata and file digests are obtained while the file is saved, see
+ * {@link UploadStream}, uploaded file is not read back. Digests sent with twine upload form
+ * are checked against the calculated ones before the file is moved from temp location, file
+ * is rejected on mismatch. Upload of existing file is rejected with conflict status, see
+ * {@link UploadLock}.
+ * When upload form verification is deferred, package name and version are taken from twine
+ * upload form fields and the archive is inspected after the response, see
+ * {@link UploadVerifier}.
  *
  * @since 0.2
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
@@ -49,13 +78,135 @@ final class WheelSlice implements Slice {
      */
     private final Storage storage;
 
+    /**
+     * Index pages cache.
+     */
+    private final IndexCache cache;
+
+    /**
+     * Trust upload form fields and verify the archive after upload.
+     */
+    private final boolean deferred;
+
+    /**
+     * Queue of projects to render index pages of.
+     */
+    private final IndexQueue queue;
+
+    /**
+     * Keys of the files being uploaded, see {@link UploadLock}.
+     */
+    private final Set<String> uploading;
+
+    /**
+     * Search index to add uploaded packages to.
+     */
+    private final SearchIndex index;
+
+    /**
+     * Catalog to add uploaded files to.
+     */
+    private final Catalog catalog;
+
+    /**
+     * Repository changelog.
+     */
+    private final Changelog changelog;
+
+    /**
+     * Metadata parsers.
+     */
+    private final MetadataParsers parsers;
+
     /**
      * Ctor.
      *
      * @param storage Storage.
      */
     WheelSlice(final Storage storage) {
+        this(storage, new IndexCache());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param cache Index pages cache.
+     */
+    WheelSlice(final Storage storage, final IndexCache cache) {
+        this(storage, cache, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param cache Index pages cache.
+     * @param deferred Trust upload form fields and verify the archive after upload.
+     */
+    WheelSlice(final Storage storage, final IndexCache cache, final boolean deferred) {
+        this(storage, cache, deferred, new MetadataParsers());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param cache Index pages cache.
+     * @param deferred Trust upload form fields and verify the archive after upload.
+     * @param parsers Metadata parsers.
+     */
+    WheelSlice(final Storage storage, final IndexCache cache, final boolean deferred,
+        final MetadataParsers parsers) {
+        this(
+            storage, cache, deferred, new SearchIndex(storage, parsers),
+            new Catalog(storage, parsers), new Changelog(storage), parsers
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param cache Index pages cache.
+     * @param deferred Trust upload form fields and verify the archive after upload.
+     * @param index Search index to add uploaded packages to.
+     * @param catalog Catalog to add uploaded files to.
+     * @param changelog Repository changelog.
+     * @param parsers Metadata parsers.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    WheelSlice(final Storage storage, final IndexCache cache, final boolean deferred,
+        final SearchIndex index, final Catalog catalog, final Changelog changelog,
+        final MetadataParsers parsers) {
+        this(storage, cache, deferred, index, catalog, changelog, parsers, IndexPage.CONCURRENCY);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param cache Index pages cache.
+     * @param deferred Trust upload form fields and verify the archive after upload.
+     * @param index Search index to add uploaded packages to.
+     * @param catalog Catalog to add uploaded files to.
+     * @param changelog Repository changelog.
+     * @param parsers Metadata parsers.
+     * @param reads Max number of files records read at once by index page render.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    WheelSlice(final Storage storage, final IndexCache cache, final boolean deferred,
+        final SearchIndex index, final Catalog catalog, final Changelog changelog,
+        final MetadataParsers parsers, final int reads) {
         this.storage = storage;
+        this.cache = cache;
+        this.deferred = deferred;
+        this.queue = new IndexQueue(storage, cache, reads);
+        this.uploading = ConcurrentHashMap.newKeySet();
+        this.index = index;
+        this.catalog = catalog;
+        this.changelog = changelog;
+        this.parsers = parsers;
     }
 
     @Override
@@ -65,25 +216,85 @@ final class WheelSlice implements Slice {
         final Publisher<ByteBuffer> publisher
     ) {
         final Key.From key = new Key.From(UUID.randomUUID().toString());
-        // @checkstyle  (50 lines)
+        final Key upload = new KeyFromPath(new RequestLineFrom(line).uri().toString());
+        final String prefix = new RequestLinePrefix(upload.string(), iterable).get();
+        final UploadForm form = new UploadForm();
+        final UploadLock lock = new UploadLock(this.uploading, this.storage, upload);
+        // @checkstyle  (70 lines)
         return new AsyncResponse(
-            this.filePart(new Headers.From(iterable), publisher, key).thenCompose(
-                filename -> this.storage.value(key).thenCompose(
-                    val -> new ContentAsStream<PackageInfo>(val).process(
-                        input -> new Metadata.FromArchive(input, filename).read()
-                    )
-                ).thenCompose(
+            this.filePart(new Headers.From(iterable), publisher, key, form, lock).thenCompose(
+                file -> file.info().thenCompose(
                     info -> {
+                        final String filename = file.filename();
                         final CompletionStage<RsStatus> res;
-                        if (new ValidFilename(info, filename).valid()) {
-                            res = this.storage.move(
-                                key,
-                                new Key.From(
-                                    new KeyFromPath(new RequestLineFrom(line).uri().toString()),
-                                    new NormalizedProjectName.Simple(info.name()).value(),
-                                    filename
-                                )
-                            ).thenApply(ignored -> RsStatus.CREATED);
+                        if (new ValidFilename(info, filename).valid()
+                            && form.matches(file.digests())) {
+                            final String name = new NormalizedProjectName.Simple(info.name())
+                                .value();
+                            final Key project = new Key.From(upload, name);
+                            final Key target = new Key.From(project, filename);
+                            final CompletionStage<Optional<String>> meta;
+                            if (file.parsed()) {
+                                meta = WheelSlice.metadata(this.storage, target, info);
+                            } else {
+                                meta = CompletableFuture.completedFuture(Optional.empty());
+                            }
+                            res = meta.thenApply(
+                                sha -> sha.map(file.record()::withMetadata).orElse(file.record())
+                            ).thenApply(
+                                rec -> info.requiresPython()
+                                    .filter(spec -> !spec.isEmpty())
+                                    .map(rec::withRequiresPython).orElse(rec)
+                            ).thenApply(
+                                rec -> rec.withUploadTime(Instant.now())
+                            ).thenCompose(
+                                rec -> lock.absent(target).thenCompose(
+                                    nothing -> this.storage.move(key, target)
+                                ).thenCompose(
+                                    nothing -> new FileRecords(this.storage).save(target, rec)
+                                ).thenCompose(
+                                    nothing -> new Projects(this.storage, upload)
+                                        .add(name, info.name())
+                                ).thenCompose(
+                                    nothing -> new IndexPage(this.storage, project, prefix)
+                                        .invalidate()
+                                ).thenApply(nothing -> rec)
+                            ).thenCompose(
+                                rec -> {
+                                    this.cache.invalidate(project);
+                                    this.cache.invalidate(Key.ROOT);
+                                    if (upload.string().isEmpty()) {
+                                        this.catalog.add(target, info.name());
+                                    }
+                                    if (file.parsed()) {
+                                        this.published(upload, info);
+                                    }
+                                    return this.committed(
+                                        this.queue.add(project, prefix),
+                                        "queue index pages", target
+                                    ).thenCompose(
+                                        nothing -> this.committed(
+                                            this.logged(
+                                                upload, info,
+                                                String.format(
+                                                    "add %s file %s",
+                                                    new DistFilename(filename).python()
+                                                        .orElse("source"),
+                                                    filename
+                                                )
+                                            ),
+                                            "record changelog event", target
+                                        )
+                                    );
+                                }
+                            ).thenApply(
+                                nothing -> {
+                                    if (!file.parsed()) {
+                                        this.verify(upload, project, prefix, target, info);
+                                    }
+                                    return RsStatus.CREATED;
+                                }
+                            );
                         } else {
                             res = this.storage.delete(key)
                                 .thenApply(nothing -> RsStatus.BAD_REQUEST);
@@ -93,35 +304,191 @@ final class WheelSlice implements Slice {
                 )
             ).handle(
                 (resp, throwable) -> {
-                    Response res = resp;
-                    if (throwable != null) {
-                        res = new RsError(
-                            new ArtipieHttpException(RsStatus.BAD_REQUEST, throwable)
-                        );
+                    final CompletionStage<Response> res;
+                    if (throwable == null) {
+                        res = CompletableFuture.completedFuture(resp);
+                    } else {
+                        res = this.storage.exists(key).thenCompose(
+                            exists -> {
+                                final CompletionStage<Void> del;
+                                if (exists) {
+                                    del = this.storage.delete(key);
+                                } else {
+                                    del = CompletableFuture.allOf();
+                                }
+                                return del;
+                            }
+                        ).thenApply(nothing -> WheelSlice.error(throwable));
                     }
                     return res;
                 }
-            )
+            ).thenCompose(Function.identity()).whenComplete((resp, err) -> lock.release())
+        );
+    }
+
+    /**
+     * Error response, status of http errors is kept, other errors are bad requests.
+     * @param throwable Error
+     * @return Response
+     */
+    private static Response error(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        final Response res;
+        if (cause instanceof ArtipieHttpException) {
+            res = new RsError((ArtipieHttpException) cause);
+        } else {
+            res = new RsError(new ArtipieHttpException(RsStatus.BAD_REQUEST, throwable));
+        }
+        return res;
+    }
+
+    /**
+     * Save core metadata file of the wheel, see {@link CoreMetadata}. Metadata of source
+     * distributions is not served as it may be not the same as the metadata of the wheel built
+     * from it, metadata is not saved either if package info was not read from metadata file.
+     * @param storage Storage
+     * @param file Distribution file key
+     * @param info Package info
+     * @return Completion action with metadata digest if metadata file was saved
+     */
+    static CompletionStage<Optional<String>> metadata(final Storage storage,
+        final Key file, final PackageInfo info) {
+        final CompletionStage<Optional<String>> res;
+        final Optional<String> meta = info.metadata();
+        if (file.string().endsWith(".whl") && meta.isPresent()) {
+            res = new CoreMetadata(storage)
+                .save(file, meta.get().getBytes(StandardCharsets.UTF_8))
+                .thenApply(Optional::of);
+        } else {
+            res = CompletableFuture.completedFuture(Optional.empty());
+        }
+        return res;
+    }
+
+    /**
+     * Add uploaded package to the search index, if it was uploaded to the repository root.
+     * @param upload Upload root key
+     * @param info Package info
+     */
+    private void published(final Key upload, final PackageInfo info) {
+        if (upload.string().isEmpty()) {
+            this.index.add(info);
+        }
+    }
+
+    /**
+     * Work done after the file was stored, failure of the work is logged, but does not fail
+     * the upload, as the file is in the repository already and upload retry would be
+     * rejected with conflict status.
+     * @param work Completion action of the work
+     * @param description Work description
+     * @param file Uploaded file key
+     * @return Completion action, which completes normally when the work is done or failed
+     */
+    private CompletionStage<Void> committed(final CompletionStage<?> work,
+        final String description, final Key file) {
+        return work.handle(
+            (nothing, err) -> {
+                if (err != null) {
+                    Logger.error(
+                        this, "Failed to %s for uploaded file %s: %[exception]s",
+                        description, file.string(), err
+                    );
+                }
+                return null;
+            }
         );
     }
 
     /**
-     * File part from multipart body.
+     * Append event to the changelog, if the file was uploaded to the repository root.
+     * @param upload Upload root key
+     * @param info Package info
+     * @param action Action description
+     * @return Completion action
+     */
+    private CompletionStage<Void> logged(final Key upload, final PackageInfo info,
+        final String action) {
+        final CompletionStage<Void> res;
+        if (upload.string().isEmpty()) {
+            res = this.changelog.append(info.name(), info.version(), action)
+                .thenApply(serial -> null);
+        } else {
+            res = CompletableFuture.allOf();
+        }
+        return res;
+    }
+
+    /**
+     * Verify the file accepted by upload form fields in background, see
+     * {@link UploadVerifier}, and add it to the search index if it is valid.
+     * Invalid file is removed from the catalog and its removal is recorded in the changelog.
+     * @param upload Upload root key
+     * @param project Project key
+     * @param prefix Index page links prefix
+     * @param file Distribution file key
+     * @param info Package info from upload form
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void verify(final Key upload, final Key project, final String prefix,
+        final Key file, final PackageInfo info) {
+        new UploadVerifier(this.storage, this.cache, this.queue, this.parsers)
+            .verify(project, prefix, file, info)
+            .thenCompose(
+                valid -> {
+                    final CompletionStage<Void> res;
+                    if (!valid) {
+                        if (upload.string().isEmpty()) {
+                            this.catalog.remove(file);
+                        }
+                        res = this.logged(
+                            upload, info,
+                            String.format("remove file %s", new KeyLastPart(file).get())
+                        );
+                    } else {
+                        this.published(upload, info);
+                        res = CompletableFuture.allOf();
+                    }
+                    return res;
+                }
+            ).whenComplete(
+                (nothing, err) -> {
+                    if (err != null) {
+                        Logger.error(
+                            this, "Failed to verify uploaded file %s: %[exception]s",
+                            file.string(), err
+                        );
+                    }
+                }
+            );
+    }
+
+    /**
+     * File part from multipart body, file is saved to storage with temp key. Other form
+     * fields are added to the upload form. If upload form verification is enabled and form
+     * fields with package name and version precede the file part, which is how twine sends
+     * them, the file is not parsed: package info is taken from the form and verified
+     * later. Request with more than one file part is rejected when the second file part is
+     * found, before its file is locked or saved.
      * @param headers Request headers
      * @param body Request body
      * @param temp Temp key to save the part
-     * @return Part with the file
+     * @param form Upload form to fill
+     * @param lock Lock of the uploaded file
+     * @return Saved file stream with file digests and package metadata
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    private CompletionStage<String> filePart(final Headers headers,
-        final Publisher<ByteBuffer> body, final Key temp) {
+    private CompletionStage<UploadStream> filePart(final Headers headers,
+        final Publisher<ByteBuffer> body, final Key temp, final UploadForm form,
+        final UploadLock lock) {
+        final AtomicBoolean found = new AtomicBoolean();
         return Flowable.fromPublisher(
             new RqMultipart(headers, body).inspect(
                 (part, inspector) -> {
-                    if (new ContentDisposition(part.headers()).fieldName().equals("content")) {
-                        inspector.accept(part);
-                    } else {
-                        inspector.ignore(part);
-                    }
+                    inspector.accept(part);
                     final CompletableFuture<Void> res = new CompletableFuture<>();
                     res.complete(null);
                     return res;
@@ -129,21 +496,45 @@ final class WheelSlice implements Slice {
             )
         ).doOnNext(
             part -> Logger.debug(this, "WS: multipart request body parsed, part %s found", part)
-        ).flatMapSingle(
-            part -> SingleInterop.fromFuture(
-                this.storage.save(temp, new Content.From(part))
-                    // @checkstyle LineLengthCheck (1 line)
-                    .thenRun(() -> Logger.debug(this, "WS: content saved to temp file `%s`", temp.string()))
-                    .thenApply(nothing -> new ContentDisposition(part.headers()).fileName())
-            )
+        ).concatMapMaybe(
+            part -> {
+                final ContentDisposition disposition = new ContentDisposition(part.headers());
+                final Maybe<UploadStream> res;
+                if (disposition.fieldName().equals("content") && found.getAndSet(true)) {
+                    res = Maybe.error(new ArtipieException("multiple content parts were found"));
+                } else if (disposition.fieldName().equals("content")) {
+                    final Optional<PackageInfo> info = form.info().filter(ignored -> this.deferred);
+                    final UploadStream file = info.map(
+                        inf -> new UploadStream(part, disposition.fileName(), inf)
+                    ).orElseGet(
+                        () -> new UploadStream(part, disposition.fileName(), this.parsers)
+                    );
+                    res = SingleInterop.fromFuture(
+                        lock.acquire(disposition.fileName())
+                            .thenCompose(
+                                nothing -> this.storage.save(temp, new Content.From(file.content()))
+                            )
+                            // @checkstyle LineLengthCheck (1 line)
+                            .thenRun(() -> Logger.debug(this, "WS: content saved to temp file `%s`", temp.string()))
+                            .thenApply(nothing -> file)
+                    ).toMaybe();
+                } else {
+                    res = SingleInterop.fromFuture(
+                        new PublisherAs(part).string(StandardCharsets.UTF_8).thenApply(
+                            value -> {
+                                form.put(disposition.fieldName(), value);
+                                return value;
+                            }
+                        )
+                    ).ignoreElement().toMaybe();
+                }
+                return res;
+            }
         ).toList().map(
             items -> {
                 if (items.isEmpty()) {
                     throw new ArtipieException("content part was not found");
                 }
-                if (items.size() > 1) {
-                    throw new ArtipieException("multiple content parts were found");
-                }
                 return items.get(0);
             }
         ).to(SingleInterop.get());
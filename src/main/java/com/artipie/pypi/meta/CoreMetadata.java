@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.ContentDigest;
+import com.artipie.asto.ext.Digests;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Core metadata file of the distribution, extracted from the package on upload and served
+ * along with the distribution file as described in
+ * <a href="https://peps.python.org/pep-0658/">PEP-658</a>. Metadata file is kept in storage
+ * with {@code .pypi/<project>/<file>.metadata} key.
+ * @since 1.0
+ */
+public final class CoreMetadata {
+
+    /**
+     * Metadata file extension.
+     */
+    public static final String EXT = ".metadata";
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    public CoreMetadata(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Save metadata file of the distribution.
+     * @param file Distribution file key
+     * @param bytes Metadata file bytes
+     * @return Completion action with sha256 hex digest of the metadata file
+     */
+    public CompletionStage<String> save(final Key file, final byte[] bytes) {
+        return this.storage.save(CoreMetadata.key(file), new Content.From(bytes)).thenCompose(
+            nothing -> new ContentDigest(new Content.From(bytes), Digests.SHA256).hex()
+        );
+    }
+
+    /**
+     * Metadata file key.
+     * @param file Distribution file key
+     * @return Key of the metadata file
+     */
+    public static Key key(final Key file) {
+        return new MetaKey(file, CoreMetadata.EXT);
+    }
+}
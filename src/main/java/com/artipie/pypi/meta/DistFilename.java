@@ -0,0 +1,267 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.util.Optional;
+
+/**
+ * Python distribution file name parsed once without regular expressions. Supported names are
+ * <a href="https://peps.python.org/pep-0427/#file-name-convention">wheel</a> names
+ * {@code <name>-<version>[-<build>]-<python>-<abi>-<platform>.whl}, egg names
+ * {@code <name>-<version>[-<python>[-<platform>]].egg} and source distribution names
+ * {@code <name>-<version>.<archive extension>}.
+ * @since 1.0
+ */
+public final class DistFilename {
+
+    /**
+     * Source distribution archive extensions.
+     */
+    private static final String[] ARCHIVES = {
+        ".tar.gz", ".tar.bz2", ".tar.xz", ".tar.Z", ".tgz", ".tar", ".zip",
+    };
+
+    /**
+     * Wheel extension.
+     */
+    private static final String WHEEL = ".whl";
+
+    /**
+     * Egg extension.
+     */
+    private static final String EGG = ".egg";
+
+    /**
+     * Name parts: name, version, build, python, abi, platform, nulls if absent.
+     */
+    private final String[] parts;
+
+    /**
+     * Ctor.
+     * @param filename File name
+     */
+    public DistFilename(final String filename) {
+        this.parts = DistFilename.parse(filename);
+    }
+
+    /**
+     * Is file name a distribution file name?
+     * @return True if file name was parsed
+     */
+    public boolean valid() {
+        return this.parts.length > 0;
+    }
+
+    /**
+     * Project name as is, not normalized.
+     * @return Name
+     */
+    public String name() {
+        return this.part(0).get();
+    }
+
+    /**
+     * Version.
+     * @return Version
+     */
+    public String version() {
+        return this.part(1).get();
+    }
+
+    /**
+     * Wheel build tag.
+     * @return Build tag if present
+     */
+    public Optional<String> build() {
+        return this.part(2);
+    }
+
+    /**
+     * Python tag of wheel or egg.
+     * @return Python tag if present
+     */
+    public Optional<String> python() {
+        return this.part(3);
+    }
+
+    /**
+     * Wheel abi tag.
+     * @return Abi tag if present
+     */
+    public Optional<String> abi() {
+        return this.part(4);
+    }
+
+    /**
+     * Platform tag of wheel or egg.
+     * @return Platform tag if present
+     */
+    public Optional<String> platform() {
+        // @checkstyle MagicNumberCheck (1 line)
+        return this.part(5);
+    }
+
+    /**
+     * Name part.
+     * @param idx Part index
+     * @return Part if present
+     */
+    private Optional<String> part(final int idx) {
+        if (!this.valid()) {
+            throw new IllegalStateException("Not a python distribution file name");
+        }
+        return Optional.ofNullable(this.parts[idx]);
+    }
+
+    /**
+     * Parse file name.
+     * @param filename File name
+     * @return Name parts, empty if file name is not a distribution file name
+     */
+    private static String[] parse(final String filename) {
+        final String[] res;
+        if (filename.endsWith(DistFilename.WHEEL)) {
+            res = DistFilename.wheel(filename, filename.length() - DistFilename.WHEEL.length());
+        } else if (filename.endsWith(DistFilename.EGG)) {
+            res = DistFilename.egg(filename, filename.length() - DistFilename.EGG.length());
+        } else {
+            res = DistFilename.sdist(filename);
+        }
+        return res;
+    }
+
+    /**
+     * Parse wheel file name from the end: platform, abi and python tags are the last three
+     * dash separated parts, build tag is the part starting with a digit before them if there
+     * is a version before it, name may contain dashes.
+     * @param filename File name
+     * @param end Index of extension
+     * @return Name parts
+     * @checkstyle MagicNumberCheck (40 lines)
+     */
+    private static String[] wheel(final String filename, final int end) {
+        final int platform = filename.lastIndexOf('-', end - 1);
+        final int abi = filename.lastIndexOf('-', platform - 1);
+        final int python = filename.lastIndexOf('-', abi - 1);
+        int version = filename.lastIndexOf('-', python - 1);
+        int stop = python;
+        String build = null;
+        final int prev = filename.lastIndexOf('-', version - 1);
+        if (prev > 0 && DistFilename.build(filename, version + 1, python)
+            && Character.isDigit(filename.charAt(prev + 1))
+            && DistFilename.version(filename, prev + 1, version)) {
+            build = filename.substring(version + 1, python);
+            stop = version;
+            version = prev;
+        }
+        String[] res = new String[0];
+        if (version > 0 && abi > python + 1 && platform > abi + 1 && end > platform + 1
+            && DistFilename.version(filename, version + 1, stop)) {
+            res = new String[6];
+            res[0] = filename.substring(0, version);
+            res[1] = filename.substring(version + 1, stop);
+            res[2] = build;
+            res[3] = filename.substring(python + 1, abi);
+            res[4] = filename.substring(abi + 1, platform);
+            res[5] = filename.substring(platform + 1, end);
+        }
+        return res;
+    }
+
+    /**
+     * Parse egg file name: name and version are the first two dash separated parts followed by
+     * optional python and platform tags.
+     * @param filename File name
+     * @param end Index of extension
+     * @return Name parts
+     * @checkstyle MagicNumberCheck (30 lines)
+     */
+    private static String[] egg(final String filename, final int end) {
+        final int name = filename.indexOf('-');
+        String[] res = new String[0];
+        if (name > 0 && name < end) {
+            int version = filename.indexOf('-', name + 1);
+            if (version < 0 || version > end) {
+                version = end;
+            }
+            if (DistFilename.version(filename, name + 1, version)) {
+                final String[] parts = new String[6];
+                parts[0] = filename.substring(0, name);
+                parts[1] = filename.substring(name + 1, version);
+                if (version < end) {
+                    int python = filename.indexOf('-', version + 1);
+                    if (python < 0 || python > end) {
+                        python = end;
+                    }
+                    parts[3] = filename.substring(version + 1, python);
+                    if (python < end) {
+                        parts[5] = filename.substring(python + 1, end);
+                    }
+                }
+                res = parts;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Parse source distribution file name: version is the part after the last dash up to the
+     * archive extension.
+     * @param filename File name
+     * @return Name parts
+     */
+    private static String[] sdist(final String filename) {
+        String[] res = new String[0];
+        for (final String ext : DistFilename.ARCHIVES) {
+            if (filename.endsWith(ext)) {
+                final int end = filename.length() - ext.length();
+                final int dash = filename.lastIndexOf('-', end - 1);
+                if (dash > 0 && DistFilename.version(filename, dash + 1, end)) {
+                    res = new String[6];
+                    res[0] = filename.substring(0, dash);
+                    res[1] = filename.substring(dash + 1, end);
+                }
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Is the part of file name a version? Version is not empty and consists of lower case
+     * letters, digits, dots, and {@code !} or {@code +} of epoch and local version.
+     * @param filename File name
+     * @param start Start index of the part
+     * @param end End index of the part
+     * @return True if the part may be a version
+     */
+    private static boolean version(final String filename, final int start, final int end) {
+        boolean res = start < end;
+        for (int idx = start; res && idx < end; idx = idx + 1) {
+            final char chr = filename.charAt(idx);
+            res = chr >= 'a' && chr <= 'z' || chr >= '0' && chr <= '9'
+                || chr == '.' || chr == '!' || chr == '+' || chr == '_';
+        }
+        return res;
+    }
+
+    /**
+     * Is the part of file name a wheel build tag? Build tag starts with a digit followed by
+     * letters, digits or underscores, see PEP 427.
+     * @param filename File name
+     * @param start Start index of the part
+     * @param end End index of the part
+     * @return True if the part may be a build tag
+     */
+    private static boolean build(final String filename, final int start, final int end) {
+        boolean res = start < end && Character.isDigit(filename.charAt(start));
+        for (int idx = start + 1; res && idx < end; idx = idx + 1) {
+            final char chr = filename.charAt(idx);
+            res = chr >= 'a' && chr <= 'z' || chr >= 'A' && chr <= 'Z' || chr >= '0' && chr <= '9'
+                || chr == '_';
+        }
+        return res;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * Python distribution file record: facts about the uploaded file simple index
+ * needs to know, kept in storage as json next to the file, so that index is built without
+ * reading the file itself.
+ * @since 1.0
+ */
+public final class FileRecord {
+
+    /**
+     * Sha256 field name.
+     */
+    private static final String SHA256 = "sha256";
+
+    /**
+     * Size field name.
+     */
+    private static final String SIZE = "size";
+
+    /**
+     * Upload time field name.
+     */
+    private static final String UPLOADED = "upload-time";
+
+    /**
+     * Core metadata sha256 field name.
+     */
+    private static final String METADATA = "metadata-sha256";
+
+    /**
+     * Requires python field name.
+     */
+    private static final String REQUIRES = "requires-python";
+
+    /**
+     * Other file digests field name.
+     */
+    private static final String HASHES = "hashes";
+
+    /**
+     * Record json.
+     */
+    private final JsonObject json;
+
+    /**
+     * Ctor.
+     * @param sha Sha256 hex digest of the file
+     * @param size Size of the file in bytes
+     */
+    public FileRecord(final String sha, final long size) {
+        this(
+            Json.createObjectBuilder()
+                .add(FileRecord.SHA256, sha)
+                .add(FileRecord.SIZE, size)
+                .build()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param bytes Record json bytes
+     */
+    public FileRecord(final byte[] bytes) {
+        this(
+            Json.createReader(new StringReader(new String(bytes, StandardCharsets.UTF_8)))
+                .readObject()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param json Record json
+     */
+    public FileRecord(final JsonObject json) {
+        this.json = json;
+    }
+
+    /**
+     * Sha256 hex digest of the file.
+     * @return Digest hex string
+     */
+    public String sha256() {
+        return this.json.getString(FileRecord.SHA256);
+    }
+
+    /**
+     * Hex digests of the file by hash name, sha256 digest is always present, other digests
+     * are known for the files they were calculated for on upload. Index pages
+     * publish sha256 digest only, other digests are published by XML-RPC API.
+     * @return Digests by hash name
+     */
+    public Map<String, String> hashes() {
+        final Map<String, String> res = new LinkedHashMap<>();
+        res.put(FileRecord.SHA256, this.sha256());
+        final JsonObject others = this.json.getJsonObject(FileRecord.HASHES);
+        if (others != null) {
+            others.keySet().forEach(name -> res.put(name, others.getString(name)));
+        }
+        return res;
+    }
+
+    /**
+     * Copy of this record with other file digests, sha256 digest is not changed.
+     * @param digests Hex digests by hash name
+     * @return Record
+     */
+    public FileRecord withHashes(final Map<String, String> digests) {
+        final JsonObjectBuilder others = Json.createObjectBuilder();
+        digests.entrySet().stream()
+            .filter(digest -> !FileRecord.SHA256.equals(digest.getKey()))
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(digest -> others.add(digest.getKey(), digest.getValue()));
+        return new FileRecord(
+            Json.createObjectBuilder(this.json).add(FileRecord.HASHES, others).build()
+        );
+    }
+
+    /**
+     * Size of the file.
+     * @return Size in bytes
+     */
+    public long size() {
+        return this.json.getJsonNumber(FileRecord.SIZE).longValue();
+    }
+
+    /**
+     * Time the file was uploaded at, is unknown for the files uploaded
+     * before records were introduced.
+     * @return ISO-8601 upload time if known
+     */
+    public Optional<String> uploadTime() {
+        return Optional.ofNullable(this.json.getString(FileRecord.UPLOADED, null));
+    }
+
+    /**
+     * Copy of this record with upload time.
+     * @param time Upload time
+     * @return Record
+     */
+    public FileRecord withUploadTime(final Instant time) {
+        return new FileRecord(
+            Json.createObjectBuilder(this.json).add(FileRecord.UPLOADED, time.toString()).build()
+        );
+    }
+
+    /**
+     * Sha256 hex digest of the distribution core metadata file, see {@link CoreMetadata},
+     * metadata file is available only for the files it was extracted from on upload.
+     * @return Digest hex string if metadata file is available
+     */
+    public Optional<String> metadata() {
+        return Optional.ofNullable(this.json.getString(FileRecord.METADATA, null));
+    }
+
+    /**
+     * Copy of this record with core metadata digest.
+     * @param sha Sha256 hex digest of the core metadata file
+     * @return Record
+     */
+    public FileRecord withMetadata(final String sha) {
+        return new FileRecord(
+            Json.createObjectBuilder(this.json).add(FileRecord.METADATA, sha).build()
+        );
+    }
+
+    /**
+     * Python versions required by the distribution, is unknown for the files uploaded
+     * before it was recorded.
+     * @return Version specifiers if known and specified
+     */
+    public Optional<String> requiresPython() {
+        return Optional.ofNullable(this.json.getString(FileRecord.REQUIRES, null));
+    }
+
+    /**
+     * Copy of this record with python versions required by the distribution.
+     * @param spec Version specifiers
+     * @return Record
+     */
+    public FileRecord withRequiresPython(final String spec) {
+        return new FileRecord(
+            Json.createObjectBuilder(this.json).add(FileRecord.REQUIRES, spec).build()
+        );
+    }
+
+    /**
+     * Copy of this record without python versions required by the distribution.
+     * @return Record
+     */
+    public FileRecord withoutRequiresPython() {
+        return new FileRecord(
+            Json.createObjectBuilder(this.json).remove(FileRecord.REQUIRES).build()
+        );
+    }
+
+    /**
+     * Record as json bytes.
+     * @return Bytes of the record json
+     */
+    public byte[] bytes() {
+        return this.json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
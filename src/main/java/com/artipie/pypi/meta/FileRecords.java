@@ -0,0 +1,130 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.ContentDigest;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
+import io.reactivex.Flowable;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Storage of python distribution {@link FileRecord}s. Record of the file with key
+ * {@code project/file.whl} is stored with {@code .pypi/project/file.whl.json} key.
+ * Records are written on upload, records of the files uploaded before records
+ * were introduced are calculated and saved on the first access.
+ * @since 1.0
+ */
+public final class FileRecords {
+
+    /**
+     * Record file extension.
+     */
+    private static final String EXT = ".json";
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    public FileRecords(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Obtain record of the file, calculates and saves the record if it does not exist yet.
+     * @param file Distribution file key
+     * @return Completion action with the record
+     */
+    public CompletionStage<FileRecord> get(final Key file) {
+        return this.stored(file).thenCompose(
+            stored -> stored.<CompletionStage<FileRecord>>map(
+                CompletableFuture::completedFuture
+            ).orElseGet(
+                () -> this.calculate(file)
+                    .thenCompose(rec -> this.save(file, rec).thenApply(nothing -> rec))
+            )
+        );
+    }
+
+    /**
+     * Obtain stored record of the file, record is not calculated if it does not exist.
+     * @param file Distribution file key
+     * @return Completion action with the record if it is stored
+     */
+    public CompletionStage<Optional<FileRecord>> stored(final Key file) {
+        final Key key = new MetaKey(file, FileRecords.EXT);
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Optional<FileRecord>> res;
+                if (exists) {
+                    res = this.storage.value(key)
+                        .thenCompose(val -> new PublisherAs(val).bytes())
+                        .thenApply(bytes -> Optional.of(new FileRecord(bytes)));
+                } else {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Calculate record of the file by reading it.
+     * @param file File key
+     * @return Completion action with the record
+     */
+    public CompletionStage<FileRecord> calculate(final Key file) {
+        final AtomicLong size = new AtomicLong();
+        return this.storage.value(file).thenCompose(
+            val -> new ContentDigest(
+                Flowable.fromPublisher(val).doOnNext(buf -> size.addAndGet(buf.remaining())),
+                Digests.SHA256
+            ).hex()
+        ).thenApply(hex -> new FileRecord(hex, size.get()));
+    }
+
+    /**
+     * Save file record.
+     * @param file Distribution file key
+     * @param record Record to save
+     * @return Completion action
+     */
+    public CompletionStage<Void> save(final Key file, final FileRecord record) {
+        return this.storage.save(
+            new MetaKey(file, FileRecords.EXT), new Content.From(record.bytes())
+        );
+    }
+
+    /**
+     * Delete file record if it exists.
+     * @param file Distribution file key
+     * @return Completion action
+     */
+    public CompletionStage<Void> delete(final Key file) {
+        final Key key = new MetaKey(file, FileRecords.EXT);
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = this.storage.delete(key);
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        );
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Project generation: counter increased each time project files are changed, kept
+ * in storage with {@code .pypi/<project>/generation} key. Projects which were not changed
+ * since the counter was introduced have zero generation. Increases of the same project are
+ * run one after another within one repository instance, so that two changes never get the
+ * same generation. Increases of projects with the same key in different storages do not
+ * wait for each other.
+ * @since 1.0
+ */
+public final class Generation {
+
+    /**
+     * Last started increase by storage and generation key, entries are removed when
+     * increase is done.
+     */
+    private static final ConcurrentMap<Map.Entry<Storage, String>, CompletableFuture<Long>>
+        UPDATES = new ConcurrentHashMap<>();
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Project key.
+     */
+    private final Key project;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param project Project key
+     */
+    public Generation(final Storage storage, final Key project) {
+        this.storage = storage;
+        this.project = project;
+    }
+
+    /**
+     * Current generation.
+     * @return Completion action with generation number
+     */
+    public CompletionStage<Long> value() {
+        final Key key = this.key();
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Long> res;
+                if (exists) {
+                    res = this.storage.value(key)
+                        .thenCompose(val -> new PublisherAs(val).asciiString())
+                        .thenApply(Long::parseLong);
+                } else {
+                    res = CompletableFuture.completedFuture(0L);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Increase generation.
+     * @return Completion action with new generation number
+     */
+    public CompletionStage<Long> next() {
+        final Map.Entry<Storage, String> key =
+            new AbstractMap.SimpleImmutableEntry<>(this.storage, this.key().string());
+        final CompletableFuture<Long> res = new CompletableFuture<>();
+        final CompletableFuture<Long> prev = Generation.UPDATES.put(key, res);
+        final CompletionStage<Void> turn;
+        if (prev == null) {
+            turn = CompletableFuture.allOf();
+        } else {
+            turn = prev.handle((val, err) -> null);
+        }
+        turn.thenCompose(nothing -> this.increase()).whenComplete(
+            (val, err) -> {
+                Generation.UPDATES.remove(key, res);
+                if (err == null) {
+                    res.complete(val);
+                } else {
+                    res.completeExceptionally(err);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Read, increase and save generation.
+     * @return Completion action with new generation number
+     */
+    private CompletionStage<Long> increase() {
+        return this.value().thenApply(val -> val + 1).thenCompose(
+            val -> this.storage.save(
+                this.key(),
+                new Content.From(String.valueOf(val).getBytes(StandardCharsets.US_ASCII))
+            ).thenApply(nothing -> val)
+        );
+    }
+
+    /**
+     * Generation key.
+     * @return Key
+     */
+    private Key key() {
+        return new MetaKey(new Key.From(this.project, "generation"));
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Key;
+
+/**
+ * Key of the repository meta file. All the files derived from uploaded packages are kept
+ * under hidden {@code .pypi} root mirroring packages layout, for example, meta files of
+ * {@code my-project/my_project-0.1.tar.gz} are stored under
+ * {@code .pypi/my-project/my_project-0.1.tar.gz*} keys.
+ * @since 1.0
+ */
+public final class MetaKey extends Key.Wrap {
+
+    /**
+     * Meta files root.
+     */
+    public static final String ROOT = ".pypi";
+
+    /**
+     * Ctor.
+     * @param item Repository item key
+     */
+    public MetaKey(final Key item) {
+        this(item, "");
+    }
+
+    /**
+     * Ctor.
+     * @param item Repository item key
+     * @param ext Meta file extension
+     */
+    public MetaKey(final Key item, final String ext) {
+        super(new Key.From(String.format("%s/%s%s", MetaKey.ROOT, item.string(), ext)));
+    }
+
+    /**
+     * Is given key a meta file key?
+     * @param key Key to check
+     * @return True if key is located under meta files root
+     */
+    public static boolean hidden(final Key key) {
+        return !key.parts().isEmpty() && MetaKey.ROOT.equals(key.parts().get(0));
+    }
+}
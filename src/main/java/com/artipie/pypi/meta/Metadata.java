@@ -184,7 +184,10 @@ public interface Metadata {
         }
 
         /**
-         * Reads archive.
+         * Reads archive: entries are scanned until canonical metadata file (wheel
+         * {@code *.dist-info/METADATA} or top level {@code PKG-INFO}) is found, the rest of
+         * the archive is not read. If there is no canonical metadata file, the best of other
+         * metadata files is used, see {@link FromArchive#rank(String)}.
          * @param input Archive to read
          * @return PackageInfo if package info file found
          * @throws IOException On error
@@ -193,16 +196,19 @@ public interface Metadata {
         private static PackageInfo readArchive(final ArchiveInputStream input) throws IOException {
             ArchiveEntry entry;
             Optional<PackageInfo> res = Optional.empty();
-            while ((entry = input.getNextEntry()) != null) {
+            int best = Integer.MAX_VALUE;
+            while (best > 1 && (entry = input.getNextEntry()) != null) {
                 if (!input.canReadEntryData(entry) || entry.isDirectory()) {
                     continue;
                 }
-                if (entry.getName().contains("PKG-INFO") || entry.getName().contains("METADATA")) {
+                final int rank = FromArchive.rank(entry.getName());
+                if (rank >= 0 && rank < best) {
                     res = Optional.of(
                         new PackageInfo.FromMetadata(
-                            IOUtils.toString(input, StandardCharsets.US_ASCII)
+                            IOUtils.toString(input, StandardCharsets.UTF_8)
                         )
                     );
+                    best = rank;
                 }
             }
             return res.orElseThrow(
@@ -210,6 +216,25 @@ public interface Metadata {
             );
         }
 
+        /**
+         * Rank of the metadata file entry: wheel {@code *.dist-info/METADATA} comes first,
+         * then top level {@code PKG-INFO} of sdist or egg, then any other metadata file.
+         * @param entry Entry name
+         * @return Rank, lower is better, negative if entry is not a metadata file
+         */
+        private static int rank(final String entry) {
+            final String name = entry.replaceFirst("^\\./", "");
+            final int res;
+            if (name.matches("[^/]+\\.dist-info/METADATA")) {
+                res = 0;
+            } else if (name.matches("[^/]+/PKG-INFO")) {
+                res = 1;
+            } else if (name.contains("PKG-INFO") || name.contains("METADATA")) {
+                res = 2;
+            } else {
+                res = -1;
+            }
+            return res;
+        }
     }
-
 }
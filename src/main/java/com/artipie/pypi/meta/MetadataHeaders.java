@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Core metadata file parsed in one pass: RFC 822 style headers, see
+ * <a href="https://packaging.python.org/en/latest/specifications/core-metadata/">core
+ * metadata specification</a>, and the message body. Header names are case-insensitive,
+ * headers may be repeated (for example, {@code Classifier} or {@code Requires-Dist}) and
+ * may be continued on the following lines starting with whitespace. Body follows the first
+ * empty line and holds the package description since metadata version 2.1.
+ * @since 1.0
+ */
+public final class MetadataHeaders {
+
+    /**
+     * Header values by lower case header name, in order of appearance.
+     */
+    private final Map<String, List<String>> headers;
+
+    /**
+     * Message body.
+     */
+    private final String text;
+
+    /**
+     * Ctor.
+     * @param bytes Metadata file bytes
+     */
+    public MetadataHeaders(final byte[] bytes) {
+        this(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ctor.
+     * @param input Metadata file contents
+     */
+    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+    public MetadataHeaders(final String input) {
+        final Map<String, List<String>> parsed = new LinkedHashMap<>();
+        final StringBuilder value = new StringBuilder();
+        List<String> current = null;
+        int start = 0;
+        String body = "";
+        while (start < input.length()) {
+            int end = input.indexOf('\n', start);
+            if (end < 0) {
+                end = input.length();
+            }
+            int last = end;
+            if (last > start && input.charAt(last - 1) == '\r') {
+                last = last - 1;
+            }
+            if (last == start) {
+                body = input.substring(Math.min(end + 1, input.length()));
+                break;
+            }
+            final char first = input.charAt(start);
+            if ((first == ' ' || first == '\t') && current != null) {
+                value.append('\n').append(input, start, last);
+            } else {
+                MetadataHeaders.add(current, value);
+                current = null;
+                final int colon = input.indexOf(':', start);
+                if (colon > start && colon < last) {
+                    current = parsed.computeIfAbsent(
+                        input.substring(start, colon).trim().toLowerCase(Locale.US),
+                        name -> new ArrayList<>(1)
+                    );
+                    value.append(input, colon + 1, last);
+                }
+            }
+            start = end + 1;
+        }
+        MetadataHeaders.add(current, value);
+        parsed.replaceAll((name, values) -> Collections.unmodifiableList(values));
+        this.headers = Collections.unmodifiableMap(parsed);
+        this.text = body;
+    }
+
+    /**
+     * First value of the header.
+     * @param name Header name
+     * @return Trimmed value if header is present
+     */
+    public Optional<String> first(final String name) {
+        return this.all(name).stream().findFirst();
+    }
+
+    /**
+     * All values of the header.
+     * @param name Header name
+     * @return Trimmed values in order of appearance, empty if header is absent
+     */
+    public List<String> all(final String name) {
+        return this.headers.getOrDefault(name.toLowerCase(Locale.US), Collections.emptyList());
+    }
+
+    /**
+     * Message body.
+     * @return Body, empty if metadata has no body
+     */
+    public String body() {
+        return this.text;
+    }
+
+    /**
+     * Add collected header value and reset the collector.
+     * @param values Header values to add to
+     * @param value Value collector
+     */
+    private static void add(final List<String> values, final StringBuilder value) {
+        if (values != null) {
+            values.add(value.toString().trim());
+        }
+        value.setLength(0);
+    }
+}
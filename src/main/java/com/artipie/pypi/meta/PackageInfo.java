@@ -4,7 +4,7 @@
  */
 package com.artipie.pypi.meta;
 
-import java.util.stream.Stream;
+import java.util.Optional;
 
 /**
  * Python package info.
@@ -30,10 +30,22 @@ public interface PackageInfo {
      */
     String summary();
 
+    /**
+     * Python versions required by the package.
+     * @return Version specifiers if specified
+     */
+    Optional<String> requiresPython();
+
+    /**
+     * Metadata file contents as is.
+     * @return Metadata file if package info was read from it
+     */
+    Optional<String> metadata();
+
     /**
      * Implementation of {@link PackageInfo} that parses python metadata PKG-INFO file to obtain
-     * required information. For more details see
-     * <a href="https://www.python.org/dev/peps/pep-0314/">PEP-314</a>.
+     * required information, file is parsed once into {@link MetadataHeaders}. For more details
+     * see <a href="https://www.python.org/dev/peps/pep-0314/">PEP-314</a>.
      * @since 0.6
      */
     final class FromMetadata implements PackageInfo {
@@ -43,12 +55,27 @@ public interface PackageInfo {
          */
         private final String input;
 
+        /**
+         * Parsed metadata headers.
+         */
+        private final MetadataHeaders headers;
+
         /**
          * Ctor.
          * @param input Input
          */
         public FromMetadata(final String input) {
+            this(input, new MetadataHeaders(input));
+        }
+
+        /**
+         * Ctor.
+         * @param input Input
+         * @param headers Parsed metadata headers of the input
+         */
+        public FromMetadata(final String input, final MetadataHeaders headers) {
             this.input = input;
+            this.headers = headers;
         }
 
         @Override
@@ -66,21 +93,35 @@ public interface PackageInfo {
             return this.read("Summary");
         }
 
+        @Override
+        public Optional<String> requiresPython() {
+            return this.headers.first("Requires-Python");
+        }
+
+        @Override
+        public Optional<String> metadata() {
+            return Optional.of(this.input);
+        }
+
+        /**
+         * Parsed metadata headers.
+         * @return Headers
+         */
+        public MetadataHeaders headers() {
+            return this.headers;
+        }
+
         /**
          * Reads header value by name.
          * @param header Header name
          * @return Header value
          */
         private String read(final String header) {
-            final String name = String.format("%s:", header);
-            return Stream.of(this.input.split("\n"))
-                .filter(line -> line.startsWith(name)).findFirst()
-                .map(line ->  line.replace(name, "").trim())
-                .orElseThrow(
-                    () -> new IllegalArgumentException(
-                        String.format("Invalid metadata file, header %s not found", header)
-                    )
-                );
+            return this.headers.first(header).orElseThrow(
+                () -> new IllegalArgumentException(
+                    String.format("Invalid metadata file, header %s not found", header)
+                )
+            );
         }
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the repository projects. Each project is registered with marker
+ * {@code .pypi/<repository>/.projects/<project>} key, which keeps project display name, so
+ * registering is a single idempotent save and does not require locking, marker of already
+ * registered project is not saved again. Projects of repositories created before the registry
+ * was introduced are found once by repository listing, when it is done
+ * {@code .pypi/<repository>/.scanned} key is saved, so that repository is not listed again
+ * even if it has no projects. Display names of found projects are not known and their
+ * normalized names are used instead.
+ * @since 1.0
+ */
+public final class Projects {
+
+    /**
+     * Markers directory name.
+     */
+    private static final String DIR = ".projects";
+
+    /**
+     * Name of the key saved when repository projects were found by listing.
+     */
+    private static final String SCANNED = ".scanned";
+
+    /**
+     * Max number of markers read at once.
+     */
+    private static final int CONCURRENCY = 8;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Repository root key.
+     */
+    private final Key root;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param root Repository root key
+     */
+    public Projects(final Storage storage, final Key root) {
+        this.storage = storage;
+        this.root = root;
+    }
+
+    /**
+     * Names of the repository projects.
+     * @return Completion action with sorted names list
+     */
+    public CompletionStage<List<String>> names() {
+        return this.scanned().thenCompose(nothing -> this.storage.list(this.markers()))
+            .thenApply(
+                markers -> markers.stream().map(key -> new KeyLastPart(key).get())
+                    .sorted().collect(Collectors.toList())
+            );
+    }
+
+    /**
+     * Display names of the repository projects, markers are read with limited concurrency.
+     * @return Completion action with display names by normalized name in names order
+     */
+    public CompletionStage<NavigableMap<String, String>> displayNames() {
+        return SingleInterop.fromFuture(this.names())
+            .flatMapPublisher(Flowable::fromIterable)
+            .concatMapEager(
+                name -> Single.defer(
+                    () -> SingleInterop.fromFuture(
+                        this.storage.value(new Key.From(this.markers(), name))
+                            .thenCompose(val -> new PublisherAs(val).string(StandardCharsets.UTF_8))
+                            .<Map.Entry<String, String>>thenApply(
+                                display -> new AbstractMap.SimpleImmutableEntry<>(
+                                    name, Optional.of(display.trim())
+                                        .filter(str -> !str.isEmpty()).orElse(name)
+                                )
+                            )
+                    )
+                ).toFlowable(),
+                Projects.CONCURRENCY, 1
+            ).<NavigableMap<String, String>>collect(
+                TreeMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue())
+            ).to(SingleInterop.get());
+    }
+
+    /**
+     * Register project with normalized name as display name.
+     * @param name Normalized project name
+     * @return Completion action
+     */
+    public CompletionStage<Void> add(final String name) {
+        return this.add(name, name);
+    }
+
+    /**
+     * Register project.
+     * @param name Normalized project name
+     * @param display Project display name
+     * @return Completion action
+     */
+    public CompletionStage<Void> add(final String name, final String display) {
+        return this.scanned().thenCompose(nothing -> this.mark(name, display));
+    }
+
+    /**
+     * Unregister project.
+     * @param name Normalized project name
+     * @return Completion action
+     */
+    public CompletionStage<Void> remove(final String name) {
+        final Key marker = new Key.From(this.markers(), name);
+        return this.storage.exists(marker).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = this.storage.delete(marker);
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Find projects by repository listing and register them, if it was not done yet.
+     * @return Completion action
+     */
+    private CompletionStage<Void> scanned() {
+        final Key done = new MetaKey(new Key.From(this.root, Projects.SCANNED));
+        return this.storage.exists(done).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = CompletableFuture.allOf();
+                } else {
+                    res = this.scan().thenCompose(
+                        nothing -> this.storage.save(done, Content.EMPTY)
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Find projects by repository listing and register projects which are not registered.
+     * @return Completion action
+     */
+    private CompletionStage<Void> scan() {
+        final int idx = this.root.parts().size();
+        return this.storage.list(this.root).thenApply(
+            keys -> keys.stream().map(Key::parts)
+                .filter(parts -> parts.size() > idx + 1 && !parts.get(idx).startsWith("."))
+                .map(parts -> parts.get(idx))
+                .distinct().collect(Collectors.toList())
+        ).thenCompose(
+            names -> CompletableFuture.allOf(
+                names.stream().map(name -> this.mark(name, ""))
+                    .map(CompletionStage::toCompletableFuture)
+                    .toArray(CompletableFuture[]::new)
+            )
+        );
+    }
+
+    /**
+     * Save project marker if it does not exist.
+     * @param name Project name
+     * @param display Project display name, empty if unknown
+     * @return Completion action
+     */
+    private CompletionStage<Void> mark(final String name, final String display) {
+        final Key marker = new Key.From(this.markers(), name);
+        return this.storage.exists(marker).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = CompletableFuture.allOf();
+                } else {
+                    res = this.storage.save(
+                        marker, new Content.From(display.getBytes(StandardCharsets.UTF_8))
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Markers directory key.
+     * @return Key
+     */
+    private Key markers() {
+        return new MetaKey(new Key.From(this.root, Projects.DIR));
+    }
+}
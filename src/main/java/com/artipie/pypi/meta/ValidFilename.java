@@ -5,30 +5,15 @@
 package com.artipie.pypi.meta;
 
 import com.artipie.pypi.NormalizedProjectName;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.util.Optional;
 
 /**
- * Python package valid filename.
+ * Python package valid filename: file name is parsed by {@link DistFilename}, project name
+ * and version of the file name should be the same as in package metadata.
  * @since 0.6
  */
 public final class ValidFilename {
 
-    /**
-     * Pattern to obtain package name from uploaded file name: for file name
-     * 'Artipie-Testpkg-0.0.3.tar.gz', then package name is 'Artipie-Testpkg'.
-     */
-    private static final Pattern ARCHIVE_PTRN =
-        Pattern.compile("(?<name>.*)-(?<version>[0-9a-z.]+?)\\.([a-zA-Z.]+)");
-
-    /**
-     * Python wheel package name pattern, for more details see
-     * <a href="https://www.python.org/dev/peps/pep-0427/#file-name-convention">docs</a>.
-     */
-    private static final Pattern WHEEL_PTRN =
-        Pattern.compile("(?<name>.*?)-(?<version>[0-9a-z.]+)(-\\d+)?-((py\\d.?)+)-(.*)-(.*).whl");
-
     /**
      * Package info data.
      */
@@ -54,16 +39,27 @@ public final class ValidFilename {
      * @return True if filename corresponds to project metadata, false - otherwise.
      */
     public boolean valid() {
-        return Stream.of(
-            ValidFilename.WHEEL_PTRN.matcher(this.filename),
-            ValidFilename.ARCHIVE_PTRN.matcher(this.filename)
-        ).filter(Matcher::matches).findFirst().map(
-            matcher -> {
-                final String name = new NormalizedProjectName.Simple(this.data.name()).value();
-                return name.equals(new NormalizedProjectName.Simple(matcher.group("name")).value())
-                    && this.data.version().equals(matcher.group("version"));
-            }
-        ).orElse(false);
+        final DistFilename dist = new DistFilename(this.filename);
+        return dist.valid()
+            && this.data.version().equals(dist.version())
+            && new NormalizedProjectName.Simple(this.data.name()).value()
+                .equals(new NormalizedProjectName.Simple(dist.name()).value());
     }
 
+    /**
+     * Normalized project name from distribution file name, the file is valid only if
+     * package metadata has the same name.
+     * @param filename File name
+     * @return Project name if file name is a distribution file name
+     */
+    public static Optional<String> project(final String filename) {
+        final DistFilename dist = new DistFilename(filename);
+        final Optional<String> res;
+        if (dist.valid()) {
+            res = Optional.of(new NormalizedProjectName.Simple(dist.name()).value());
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
 }
@@ -0,0 +1,455 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Python package version, see
+ * <a href="https://peps.python.org/pep-0440/">PEP-440</a>. Version is parsed into epoch,
+ * release, pre-, post- and dev-release and local segments and compared by them, so that
+ * {@code 1.10} is newer than {@code 1.9}, {@code 1.0rc1} is older than {@code 1.0} and
+ * {@code 1.0.post1} is newer. Parsed versions are cached by version string. Versions which
+ * are not valid PEP-440 versions are older than any valid version and are compared as
+ * strings.
+ * @since 1.0
+ */
+public final class Version implements Comparable<Version> {
+
+    /**
+     * Parsed versions cache.
+     */
+    private static final Cache<String, Parsed> CACHE = Caffeine.newBuilder()
+        .maximumSize(10_000).build();
+
+    /**
+     * Version string.
+     */
+    private final String value;
+
+    /**
+     * Ctor.
+     * @param value Version string
+     */
+    public Version(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Is version a valid PEP-440 version?
+     * @return True if valid
+     */
+    public boolean valid() {
+        return this.parsed().valid;
+    }
+
+    @Override
+    public int compareTo(final Version other) {
+        return this.parsed().compareTo(other.parsed());
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other
+            || other instanceof Version && this.compareTo((Version) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.parsed().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+
+    /**
+     * Parsed version.
+     * @return Parsed version from cache
+     */
+    private Parsed parsed() {
+        return Version.CACHE.get(this.value, Parsed::new);
+    }
+
+    /**
+     * Parsed version segments. Absent pre-, post- and dev-release segments are kept as
+     * {@link Long#MIN_VALUE} or {@link Long#MAX_VALUE} to sort them as PEP-440 requires.
+     * @since 1.0
+     * @checkstyle VisibilityModifierCheck (500 lines)
+     */
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private static final class Parsed implements Comparable<Parsed> {
+
+        /**
+         * Pre-release kinds in order.
+         */
+        private static final String[][] PRE = {
+            {"alpha", "a"}, {"beta", "b"}, {"preview", "pre", "rc", "c"},
+        };
+
+        /**
+         * Post-release markers.
+         */
+        private static final String[] POST = {"post", "rev", "r"};
+
+        /**
+         * Source string in lower case.
+         */
+        private final String src;
+
+        /**
+         * Is version valid.
+         */
+        private boolean valid;
+
+        /**
+         * Epoch.
+         */
+        private long epoch;
+
+        /**
+         * Release numbers without trailing zeros.
+         */
+        private long[] release;
+
+        /**
+         * Pre-release kind.
+         */
+        private long prekind;
+
+        /**
+         * Pre-release number.
+         */
+        private long prenum;
+
+        /**
+         * Post-release number.
+         */
+        private long post;
+
+        /**
+         * Dev-release number.
+         */
+        private long dev;
+
+        /**
+         * Local segments.
+         */
+        private String[] local;
+
+        /**
+         * Current parsing position.
+         */
+        private int pos;
+
+        /**
+         * Ctor.
+         * @param value Version string
+         */
+        @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+        Parsed(final String value) {
+            this.src = value.trim().toLowerCase(Locale.US);
+            this.release = new long[0];
+            this.local = new String[0];
+            try {
+                this.valid = this.parse();
+            } catch (final NumberFormatException ex) {
+                this.valid = false;
+            }
+        }
+
+        @Override
+        public int compareTo(final Parsed other) {
+            int res = Boolean.compare(this.valid, other.valid);
+            if (res == 0 && !this.valid) {
+                res = this.src.compareTo(other.src);
+            }
+            if (res == 0) {
+                res = Long.compare(this.epoch, other.epoch);
+            }
+            for (int idx = 0; res == 0 && idx < Math.max(this.release.length,
+                other.release.length); idx = idx + 1) {
+                res = Long.compare(Parsed.at(this.release, idx), Parsed.at(other.release, idx));
+            }
+            if (res == 0) {
+                res = Long.compare(this.prekind, other.prekind);
+            }
+            if (res == 0) {
+                res = Long.compare(this.prenum, other.prenum);
+            }
+            if (res == 0) {
+                res = Long.compare(this.post, other.post);
+            }
+            if (res == 0) {
+                res = Long.compare(this.dev, other.dev);
+            }
+            for (int idx = 0; res == 0 && idx < Math.min(this.local.length,
+                other.local.length); idx = idx + 1) {
+                res = Parsed.compareLocal(this.local[idx], other.local[idx]);
+            }
+            if (res == 0) {
+                res = Integer.compare(this.local.length, other.local.length);
+            }
+            return res;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Parsed && this.compareTo((Parsed) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            final int res;
+            if (this.valid) {
+                res = Arrays.hashCode(
+                    new long[] {
+                        this.epoch, Arrays.hashCode(this.release), this.prekind, this.prenum,
+                        this.post, this.dev, Arrays.hashCode(this.local),
+                    }
+                );
+            } else {
+                res = this.src.hashCode();
+            }
+            return res;
+        }
+
+        /**
+         * Parse version string.
+         * @return True if version string is valid
+         * @checkstyle CyclomaticComplexityCheck (60 lines)
+         */
+        @SuppressWarnings("PMD.CognitiveComplexity")
+        private boolean parse() {
+            if (this.src.startsWith("v")) {
+                this.pos = 1;
+            }
+            final int start = this.pos;
+            final long first = this.number(-1);
+            if (first >= 0 && this.next('!')) {
+                this.epoch = first;
+            } else {
+                this.pos = start;
+            }
+            this.release = this.release();
+            boolean res = this.release != null;
+            if (res) {
+                this.prekind = Long.MAX_VALUE;
+                this.prenum = Long.MAX_VALUE;
+                final int kind = this.keyword(Parsed.PRE);
+                if (kind >= 0) {
+                    this.prekind = kind;
+                    this.prenum = this.number(0);
+                }
+                this.post = Long.MIN_VALUE;
+                if (this.keyword(new String[][] {Parsed.POST}) >= 0) {
+                    this.post = this.number(0);
+                } else if (this.pos + 1 < this.src.length() && this.src.charAt(this.pos) == '-'
+                    && Character.isDigit(this.src.charAt(this.pos + 1))) {
+                    this.pos = this.pos + 1;
+                    this.post = this.number(0);
+                }
+                this.dev = Long.MAX_VALUE;
+                if (this.keyword(new String[][] {{"dev"}}) >= 0) {
+                    this.dev = this.number(0);
+                    if (kind < 0 && this.post == Long.MIN_VALUE) {
+                        this.prekind = Long.MIN_VALUE;
+                    }
+                }
+                if (res && this.next('+')) {
+                    this.local = this.src.substring(this.pos).split("[-_.]", -1);
+                    res = Arrays.stream(this.local)
+                        .allMatch(seg -> !seg.isEmpty() && seg.chars().allMatch(Parsed::alnum));
+                    if (res) {
+                        this.local = Arrays.stream(this.local).map(Parsed::local)
+                            .toArray(String[]::new);
+                    }
+                    this.pos = this.src.length();
+                }
+                res = res && this.pos == this.src.length();
+            }
+            return res;
+        }
+
+        /**
+         * Parse release numbers separated by dots, trailing zeros are dropped.
+         * @return Release numbers or null if release is absent
+         */
+        private long[] release() {
+            long[] res = new long[4];
+            int size = 0;
+            long num = this.number(-1);
+            final boolean found = num >= 0;
+            while (num >= 0) {
+                if (size == res.length) {
+                    res = Arrays.copyOf(res, size * 2);
+                }
+                res[size] = num;
+                size = size + 1;
+                final int dot = this.pos;
+                if (this.next('.')) {
+                    num = this.number(-1);
+                    if (num < 0) {
+                        this.pos = dot;
+                    }
+                } else {
+                    num = -1;
+                }
+            }
+            while (size > 0 && res[size - 1] == 0) {
+                size = size - 1;
+            }
+            final long[] release;
+            if (found) {
+                release = Arrays.copyOf(res, size);
+            } else {
+                release = null;
+            }
+            return release;
+        }
+
+        /**
+         * Parse optional separator and one of the keywords followed by optional separator.
+         * Position is not changed if there is no keyword.
+         * @param kinds Keywords by kind
+         * @return Kind index or -1 if keyword is absent
+         */
+        private int keyword(final String[][] kinds) {
+            final int start = this.pos;
+            this.separator();
+            int res = -1;
+            for (int kind = 0; res < 0 && kind < kinds.length; kind = kind + 1) {
+                for (final String word : kinds[kind]) {
+                    if (this.src.startsWith(word, this.pos)) {
+                        this.pos = this.pos + word.length();
+                        res = kind;
+                        break;
+                    }
+                }
+            }
+            if (res < 0) {
+                this.pos = start;
+            } else {
+                final int sep = this.pos;
+                this.separator();
+                if (this.pos == this.src.length()
+                    || !Character.isDigit(this.src.charAt(this.pos))) {
+                    this.pos = sep;
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Skip optional separator.
+         */
+        private void separator() {
+            if (!this.next('-')) {
+                if (!this.next('_')) {
+                    this.next('.');
+                }
+            }
+        }
+
+        /**
+         * Skip the character if it is at current position.
+         * @param chr Character
+         * @return True if character was skipped
+         */
+        private boolean next(final char chr) {
+            final boolean res = this.pos < this.src.length() && this.src.charAt(this.pos) == chr;
+            if (res) {
+                this.pos = this.pos + 1;
+            }
+            return res;
+        }
+
+        /**
+         * Parse number at current position.
+         * @param absent Value if there is no number
+         * @return Number
+         */
+        private long number(final long absent) {
+            final int start = this.pos;
+            while (this.pos < this.src.length() && Character.isDigit(this.src.charAt(this.pos))) {
+                this.pos = this.pos + 1;
+            }
+            final long res;
+            if (this.pos == start) {
+                res = absent;
+            } else {
+                res = Long.parseLong(this.src.substring(start, this.pos));
+            }
+            return res;
+        }
+
+        /**
+         * Release number at index, zero if release is shorter.
+         * @param release Release numbers
+         * @param idx Index
+         * @return Number
+         */
+        private static long at(final long[] release, final int idx) {
+            final long res;
+            if (idx < release.length) {
+                res = release[idx];
+            } else {
+                res = 0;
+            }
+            return res;
+        }
+
+        /**
+         * Normalize local version segment: leading zeros of numeric segment are dropped, so
+         * that equal segments have the same hash code.
+         * @param segment Segment
+         * @return Normalized segment
+         */
+        private static String local(final String segment) {
+            final String res;
+            if (segment.chars().allMatch(Character::isDigit)) {
+                res = new BigInteger(segment).toString();
+            } else {
+                res = segment;
+            }
+            return res;
+        }
+
+        /**
+         * Compare local version segments: numeric segments are newer than alphanumeric ones
+         * and are compared as numbers.
+         * @param first First segment
+         * @param second Second segment
+         * @return Comparison result
+         */
+        private static int compareLocal(final String first, final String second) {
+            final boolean fnum = first.chars().allMatch(Character::isDigit);
+            final boolean snum = second.chars().allMatch(Character::isDigit);
+            final int res;
+            if (fnum && snum) {
+                res = new BigInteger(first).compareTo(new BigInteger(second));
+            } else if (fnum || snum) {
+                res = Boolean.compare(fnum, snum);
+            } else {
+                res = first.compareTo(second);
+            }
+            return res;
+        }
+
+        /**
+         * Is character a lower case letter or a digit?
+         * @param chr Character
+         * @return True if alphanumeric
+         */
+        private static boolean alnum(final int chr) {
+            return chr >= 'a' && chr <= 'z' || chr >= '0' && chr <= '9';
+        }
+    }
+}
@@ -30,7 +30,8 @@ class NormalizedProjectNameSimpleTest {
         "superProject,superproject",
         "my-super-project,my-super-project",
         "One._Two._Three,one-two-three",
-        "agent--007,agent-007"
+        "agent--007,agent-007",
+        "-Lead_.Trail-,-lead-trail-"
     })
     void normalizesNames(final String name, final String normalized) {
         MatcherAssert.assertThat(
@@ -0,0 +1,233 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Changelog}.
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class ChangelogTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage asto;
+
+    @BeforeEach
+    void init() {
+        this.asto = new InMemoryStorage();
+    }
+
+    @Test
+    void returnsZeroSerialWhenEmpty() {
+        MatcherAssert.assertThat(
+            new Changelog(this.asto).last().toCompletableFuture().join(),
+            new IsEqual<>(0L)
+        );
+    }
+
+    @Test
+    void appendsEventsWithIncreasingSerials() {
+        final Changelog log = new Changelog(this.asto);
+        MatcherAssert.assertThat(
+            "Assigns serials",
+            Arrays.asList(
+                log.append("abc", "0.1", "add source file abc-0.1.tar.gz")
+                    .toCompletableFuture().join(),
+                log.append("abc", "0.2", "add py3 file abc-0.2-py3-none-any.whl")
+                    .toCompletableFuture().join(),
+                log.append("def", "1.0", "add source file def-1.0.tar.gz")
+                    .toCompletableFuture().join()
+            ),
+            Matchers.contains(1L, 2L, 3L)
+        );
+        MatcherAssert.assertThat(
+            "Returns last serial",
+            log.last().toCompletableFuture().join(),
+            new IsEqual<>(3L)
+        );
+        MatcherAssert.assertThat(
+            "Returns events after serial",
+            log.since(1L).toCompletableFuture().join().stream()
+                .map(
+                    event -> String.format(
+                        "%d %s %s", event.serial(), event.name(), event.version()
+                    )
+                )
+                .collect(Collectors.toList()),
+            Matchers.contains("2 abc 0.2", "3 def 1.0")
+        );
+    }
+
+    @Test
+    void readsEventsFromStorage() {
+        final Changelog log = new Changelog(this.asto);
+        for (int idx = 1; idx <= 11; idx = idx + 1) {
+            log.append("abc", String.format("0.%d", idx), "add source file")
+                .toCompletableFuture().join();
+        }
+        final Changelog read = new Changelog(this.asto);
+        MatcherAssert.assertThat(
+            "Reads events",
+            read.since(9L).toCompletableFuture().join().stream()
+                .map(Changelog.Event::version).collect(Collectors.toList()),
+            Matchers.contains("0.10", "0.11")
+        );
+        MatcherAssert.assertThat(
+            "Continues serials",
+            read.append("def", "1.0", "add source file").toCompletableFuture().join(),
+            new IsEqual<>(12L)
+        );
+    }
+
+    @Test
+    void savesConcurrentAppendsInSerialOrder() {
+        final Changelog log = new Changelog(this.asto);
+        final List<CompletableFuture<Long>> appends = IntStream.rangeClosed(1, 20).mapToObj(
+            idx -> log.append("abc", String.format("0.%d", idx), "add source file")
+                .toCompletableFuture()
+        ).collect(Collectors.toList());
+        MatcherAssert.assertThat(
+            "Assigns serials in append order",
+            appends.stream().map(CompletableFuture::join).collect(Collectors.toList()),
+            new IsEqual<>(
+                LongStream.rangeClosed(1, 20).boxed().collect(Collectors.toList())
+            )
+        );
+        MatcherAssert.assertThat(
+            "Returns last serial",
+            new Changelog(this.asto).last().toCompletableFuture().join(),
+            new IsEqual<>(20L)
+        );
+    }
+
+    @Test
+    void readsEventsInBatchesUpToLimit() {
+        final Changelog log = new Changelog(this.asto);
+        for (int idx = 1; idx <= 9; idx = idx + 1) {
+            log.append("abc", String.format("0.%d", idx), "add source file")
+                .toCompletableFuture().join();
+        }
+        MatcherAssert.assertThat(
+            new Changelog(this.asto, 2, 5).since(3L).toCompletableFuture().join().stream()
+                .map(Changelog.Event::serial).collect(Collectors.toList()),
+            Matchers.contains(4L, 5L, 6L, 7L, 8L)
+        );
+    }
+
+    @Test
+    void readsLastSerialAgainIfReadFailed() {
+        new Changelog(this.asto).append("abc", "0.1", "add source file")
+            .toCompletableFuture().join();
+        final AtomicInteger reads = new AtomicInteger();
+        final Changelog log = new Changelog(
+            new Storage.Wrap(this.asto) {
+                @Override
+                public CompletableFuture<Boolean> exists(final Key key) {
+                    final CompletableFuture<Boolean> res;
+                    if (reads.incrementAndGet() == 1) {
+                        res = new CompletableFuture<>();
+                        res.completeExceptionally(new IllegalStateException("read failed"));
+                    } else {
+                        res = super.exists(key);
+                    }
+                    return res;
+                }
+            }
+        );
+        Assertions.assertThrows(
+            CompletionException.class, () -> log.last().toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            log.last().toCompletableFuture().join(),
+            new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    void skipsKeysWhichAreNotSerials() {
+        final Changelog log = new Changelog(this.asto);
+        log.append("abc", "0.1", "add source file").toCompletableFuture().join();
+        this.asto.save(
+            new Key.From(".pypi/.changelog/0000000000000000000/readme"), Content.EMPTY
+        ).join();
+        MatcherAssert.assertThat(
+            new Changelog(this.asto).since(0L).toCompletableFuture().join().stream()
+                .map(Changelog.Event::serial).collect(Collectors.toList()),
+            Matchers.contains(1L)
+        );
+    }
+
+    @Test
+    void findsEventsSavedAfterLastSerial() {
+        final Changelog log = new Changelog(this.asto);
+        for (int idx = 1; idx <= 3; idx = idx + 1) {
+            log.append("abc", String.format("0.%d", idx), "add source file")
+                .toCompletableFuture().join();
+        }
+        this.asto.save(
+            new Key.From(".pypi/.changelog/last"),
+            new Content.From("1".getBytes(StandardCharsets.UTF_8))
+        ).join();
+        MatcherAssert.assertThat(
+            new Changelog(this.asto).last().toCompletableFuture().join(),
+            new IsEqual<>(3L)
+        );
+    }
+
+    @Test
+    void listsOnlyRangesAfterSerial() {
+        final Changelog log = new Changelog(this.asto);
+        for (int idx = 1; idx <= 2001; idx = idx + 1) {
+            log.append("abc", String.format("0.%d", idx), "add source file")
+                .toCompletableFuture().join();
+        }
+        final List<String> listed = new CopyOnWriteArrayList<>();
+        MatcherAssert.assertThat(
+            "Reads events",
+            new Changelog(
+                new Storage.Wrap(this.asto) {
+                    @Override
+                    public CompletableFuture<Collection<Key>> list(final Key prefix) {
+                        listed.add(prefix.string());
+                        return super.list(prefix);
+                    }
+                }
+            ).since(1999L).toCompletableFuture().join().stream()
+                .map(Changelog.Event::serial).collect(Collectors.toList()),
+            Matchers.contains(2000L, 2001L)
+        );
+        MatcherAssert.assertThat(
+            "Lists ranges of the events only",
+            listed,
+            Matchers.contains(
+                ".pypi/.changelog/0000000000000000001", ".pypi/.changelog/0000000000000000002"
+            )
+        );
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Headers;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link IfNoneMatch}.
+ * @since 1.0
+ */
+class IfNoneMatchTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "'\"3-html\"',true",
+        "'\"1-html\", \"3-html\"',true",
+        "'W/\"3-html\"',true",
+        "*,true",
+        "'\"3-json\"',false",
+        "'\"2-html\"',false"
+    })
+    void matchesTag(final String header, final boolean res) {
+        MatcherAssert.assertThat(
+            new IfNoneMatch(new Headers.From("If-None-Match", header)).matches("\"3-html\""),
+            new IsEqual<>(res)
+        );
+    }
+
+    @Test
+    void doesNotMatchWithoutHeader() {
+        MatcherAssert.assertThat(
+            new IfNoneMatch(Collections.emptyList()).matches("\"0-html\""),
+            new IsEqual<>(false)
+        );
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link IndexCache}.
+ * @since 1.0
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+class IndexCacheTest {
+
+    /**
+     * Test cache.
+     */
+    private IndexCache cache;
+
+    /**
+     * Loads counter.
+     */
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void init() {
+        this.cache = new IndexCache(1024, Duration.ofMinutes(1));
+        this.loads = new AtomicInteger();
+    }
+
+    @Test
+    void loadsPageOnce() {
+        final Key project = new Key.From("abc");
+        this.get(project, IndexFormat.HTML, "one");
+        MatcherAssert.assertThat(
+            this.get(project, IndexFormat.HTML, "two"),
+            new IsEqual<>("one")
+        );
+        MatcherAssert.assertThat(this.loads.get(), new IsEqual<>(1));
+    }
+
+    @Test
+    void keepsFormatsApart() {
+        final Key project = new Key.From("abc");
+        this.get(project, IndexFormat.HTML, "html");
+        MatcherAssert.assertThat(
+            this.get(project, IndexFormat.JSON, "json"),
+            new IsEqual<>("json")
+        );
+    }
+
+    @Test
+    void invalidatesProjectPages() {
+        final Key project = new Key.From("abc");
+        final Key other = new Key.From("xyz");
+        this.get(project, IndexFormat.HTML, "one");
+        this.get(project, IndexFormat.JSON, "one");
+        this.get(other, IndexFormat.HTML, "other");
+        this.cache.invalidate(project);
+        MatcherAssert.assertThat(
+            "Project page was not reloaded",
+            this.get(project, IndexFormat.HTML, "two"),
+            new IsEqual<>("two")
+        );
+        MatcherAssert.assertThat(
+            "Other project page was reloaded",
+            this.get(other, IndexFormat.HTML, "changed"),
+            new IsEqual<>("other")
+        );
+    }
+
+    @Test
+    void doesNotKeepPageLoadedDuringInvalidation() {
+        final Key project = new Key.From("abc");
+        final CompletableFuture<IndexCache.Page> loading = new CompletableFuture<>();
+        final CompletableFuture<IndexCache.Page> stale = this.cache.page(
+            project, "", IndexFormat.HTML, PageEncoding.IDENTITY, () -> loading
+        ).toCompletableFuture();
+        this.cache.invalidate(project);
+        loading.complete(IndexCacheTest.page("stale"));
+        MatcherAssert.assertThat(
+            "Stale page was not returned to its requester",
+            new String(stale.join().body(), StandardCharsets.UTF_8),
+            new IsEqual<>("stale")
+        );
+        MatcherAssert.assertThat(
+            "Stale page was cached",
+            this.get(project, IndexFormat.HTML, "fresh"),
+            new IsEqual<>("fresh")
+        );
+    }
+
+    /**
+     * Get page from the cache.
+     * @param project Project key
+     * @param format Page format
+     * @param body Page body to load on cache miss
+     * @return Page body
+     */
+    private String get(final Key project, final IndexFormat format, final String body) {
+        return new String(
+            this.cache.page(
+                project, "", format, PageEncoding.IDENTITY,
+                () -> {
+                    this.loads.incrementAndGet();
+                    return CompletableFuture.completedFuture(IndexCacheTest.page(body));
+                }
+            ).toCompletableFuture().join().body(),
+            StandardCharsets.UTF_8
+        );
+    }
+
+    /**
+     * Page with body.
+     * @param body Body
+     * @return Page
+     */
+    private static IndexCache.Page page(final String body) {
+        return new IndexCache.Page(Optional.empty(), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
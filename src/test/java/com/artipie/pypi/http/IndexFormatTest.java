@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.http.Headers;
+import com.artipie.pypi.meta.FileRecord;
+import io.reactivex.Flowable;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.StringContains;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link IndexFormat}.
+ * @since 1.0
+ */
+class IndexFormatTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "'application/vnd.pypi.simple.v1+json, application/vnd.pypi.simple.v1+html; q=0.1, "
+            + "text/html; q=0.01',JSON",
+        "'text/html; q=0.5, application/vnd.pypi.simple.latest+json; q=0.2',HTML",
+        "'application/vnd.pypi.simple.v1+html',HTML",
+        "'*/*',HTML",
+        "'application/xml',HTML"
+    })
+    void choosesFormatByAccept(final String accept, final IndexFormat format) {
+        MatcherAssert.assertThat(
+            IndexFormat.of(new Headers.From("Accept", accept)),
+            new IsEqual<>(format)
+        );
+    }
+
+    @Test
+    void usesHtmlByDefault() {
+        MatcherAssert.assertThat(
+            IndexFormat.of(Collections.emptyList()),
+            new IsEqual<>(IndexFormat.HTML)
+        );
+    }
+
+    @Test
+    void emitsPageByParts() {
+        MatcherAssert.assertThat(
+            IndexFormat.HTML.project(
+                "", new Key.From("abc"),
+                Flowable.just(
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        new Key.From("abc", "abc-0.1.tar.gz"), new FileRecord("0a", 1)
+                    ),
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        new Key.From("abc", "abc-0.2.tar.gz"), new FileRecord("0b", 2)
+                    )
+                )
+            ).count().blockingGet(),
+            new IsEqual<>(4L)
+        );
+    }
+
+    @Test
+    void advertisesCoreMetadata() {
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new Content.From(
+                    IndexFormat.HTML.project(
+                        "", new Key.From("abc"),
+                        Flowable.just(
+                            new AbstractMap.SimpleImmutableEntry<>(
+                                new Key.From("abc", "abc-0.1-py3-none-any.whl"),
+                                new FileRecord("0a", 1).withMetadata("0b")
+                            )
+                        )
+                    )
+                )
+            ).asciiString().toCompletableFuture().join(),
+            new StringContains(
+                String.join(
+                    "",
+                    "<a href=\"/abc/abc-0.1-py3-none-any.whl#sha256=0a\"",
+                    " data-dist-info-metadata=\"sha256=0b\" data-core-metadata=\"sha256=0b\">"
+                )
+            )
+        );
+    }
+
+    @Test
+    void rendersOnlySha256JsonHash() {
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new Content.From(
+                    IndexFormat.JSON.project(
+                        "", new Key.From("abc"),
+                        Flowable.just(
+                            new AbstractMap.SimpleImmutableEntry<>(
+                                new Key.From("abc", "abc-0.1.tar.gz"),
+                                new FileRecord("0a", 1).withHashes(
+                                    Collections.singletonMap("blake2_256", "0c")
+                                )
+                            )
+                        )
+                    )
+                )
+            ).asciiString().toCompletableFuture().join(),
+            new StringContains("\"hashes\":{\"sha256\":\"0a\"}")
+        );
+    }
+
+    @Test
+    void rendersEscapedRequiresPython() {
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new Content.From(
+                    IndexFormat.HTML.project(
+                        "", new Key.From("abc"),
+                        Flowable.just(
+                            new AbstractMap.SimpleImmutableEntry<>(
+                                new Key.From("abc", "abc-0.1.tar.gz"),
+                                new FileRecord("0a", 1).withRequiresPython(">=3.8, <4")
+                            )
+                        )
+                    )
+                )
+            ).asciiString().toCompletableFuture().join(),
+            new StringContains("data-requires-python=\"&gt;=3.8, &lt;4\">abc-0.1.tar.gz</a>")
+        );
+    }
+
+    @Test
+    void rendersJsonArrays() {
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new Content.From(IndexFormat.JSON.root("", Arrays.asList("abc", "xyz")))
+            ).asciiString().toCompletableFuture().join(),
+            new IsEqual<>(
+                String.join(
+                    "",
+                    "{\"projects\":[{\"name\":\"abc\"},{\"name\":\"xyz\"}],",
+                    "\"meta\":{\"api-version\":\"1.0\"}}"
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.pypi.meta.FileRecord;
+import com.artipie.pypi.meta.FileRecords;
+import com.artipie.pypi.meta.Generation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.StringContains;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link IndexPage}.
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class IndexPageTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage asto;
+
+    @BeforeEach
+    void init() {
+        this.asto = new InMemoryStorage();
+    }
+
+    @Test
+    void readsRecordsWithLimitedConcurrencyInKeysOrder() {
+        final Key project = new Key.From("jkl");
+        for (int idx = 9; idx >= 0; idx = idx - 1) {
+            this.asto.save(
+                new Key.From(project, String.format("jkl-0.%d.whl", idx)),
+                new Content.From(new byte[]{})
+            ).join();
+        }
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final Storage slow = new Storage.Wrap(this.asto) {
+            @Override
+            public CompletableFuture<Content> value(final Key key) {
+                max.accumulateAndGet(active.incrementAndGet(), Math::max);
+                return CompletableFuture.runAsync(
+                    () -> {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(
+                                ThreadLocalRandom.current().nextInt(5, 20)
+                            );
+                        } catch (final InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        active.decrementAndGet();
+                    }
+                ).thenCompose(nothing -> super.value(key));
+            }
+        };
+        final String page = this.page(new IndexPage(slow, project, "", 2));
+        MatcherAssert.assertThat(
+            "Reads more records than allowed at once",
+            max.get(),
+            Matchers.lessThanOrEqualTo(2)
+        );
+        MatcherAssert.assertThat(
+            "Files are not sorted",
+            page,
+            Matchers.stringContainsInOrder(
+                Arrays.asList("jkl-0.0.whl", "jkl-0.1.whl", "jkl-0.5.whl", "jkl-0.9.whl")
+            )
+        );
+    }
+
+    @Test
+    void rendersPageWithPrefix() {
+        final Key file = new Key.From("abc", "abc-0.1.whl");
+        this.asto.save(file, new Content.From("abc".getBytes())).join();
+        new FileRecords(this.asto).save(file, new FileRecord("a1b2", 3)).toCompletableFuture()
+            .join();
+        MatcherAssert.assertThat(
+            this.page(new IndexPage(this.asto, new Key.From("abc"), "/my/pypi")),
+            new StringContains("<a href=\"/my/pypi/abc/abc-0.1.whl#sha256=a1b2\">abc-0.1.whl</a>")
+        );
+    }
+
+    @Test
+    void servesStoredPage() {
+        final Key project = new Key.From("def");
+        this.asto.save(new Key.From(project, "def-0.1.whl"), new Content.From(new byte[]{}))
+            .join();
+        new IndexPage(this.asto, project, "").update().toCompletableFuture().join();
+        this.asto.save(new Key.From(project, "def-0.2.whl"), new Content.From(new byte[]{}))
+            .join();
+        MatcherAssert.assertThat(
+            this.page(new IndexPage(this.asto, project, "")),
+            Matchers.not(new StringContains("def-0.2.whl"))
+        );
+    }
+
+    @Test
+    void updatesPagesOfAllPrefixes() {
+        final Key project = new Key.From("ghi");
+        this.asto.save(new Key.From(project, "ghi-0.1.whl"), new Content.From(new byte[]{}))
+            .join();
+        this.page(new IndexPage(this.asto, project, "/one"));
+        this.asto.save(new Key.From(project, "ghi-0.2.whl"), new Content.From(new byte[]{}))
+            .join();
+        new IndexPage(this.asto, project, "/two").update().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Removes page of other prefix",
+            this.asto.exists(new Key.From(".pypi/ghi/pages/one/index.html")).join(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Renders page of current prefix",
+            this.page(new IndexPage(this.asto, project, "/two")),
+            new StringContains("/two/ghi/ghi-0.2.whl")
+        );
+    }
+
+    @Test
+    void discardsPagesRenderedWhileGenerationChanged() {
+        final Key project = new Key.From("stu");
+        this.asto.save(new Key.From(project, "stu-0.1.whl"), new Content.From(new byte[]{}))
+            .join();
+        final Generation gen = new Generation(this.asto, project);
+        final Storage changing = new Storage.Wrap(this.asto) {
+            @Override
+            public CompletableFuture<Collection<Key>> list(final Key key) {
+                return gen.next().toCompletableFuture().thenCompose(next -> super.list(key));
+            }
+        };
+        MatcherAssert.assertThat(
+            "Serves rendered page",
+            this.page(new IndexPage(changing, project, "")),
+            new StringContains("stu-0.1.whl")
+        );
+        MatcherAssert.assertThat(
+            "Does not keep rendered page",
+            this.asto.exists(new Key.From(".pypi/stu/pages/index.html")).join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    private String page(final IndexPage page) {
+        return page.content(IndexFormat.HTML, PageEncoding.IDENTITY)
+            .thenCompose(content -> new PublisherAs(content.get()).asciiString())
+            .toCompletableFuture().join();
+    }
+}
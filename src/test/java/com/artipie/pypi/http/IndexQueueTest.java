@@ -0,0 +1,155 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link IndexQueue}.
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class IndexQueueTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage asto;
+
+    @BeforeEach
+    void init() {
+        this.asto = new InMemoryStorage();
+    }
+
+    @Test
+    void rendersQueuedProject() throws InterruptedException {
+        final Key project = new Key.From("abc");
+        this.asto.save(new Key.From(project, "abc-0.1.whl"), new Content.From(new byte[]{}))
+            .join();
+        new IndexQueue(this.asto, new IndexCache()).add(project, "")
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Removes project from storage queue",
+            this.awaits(new Key.From(".pypi/.queue/abc"), false),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Renders project page",
+            this.asto.exists(new Key.From(".pypi/abc/pages/index.html")).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void rendersProjectQueuedSeveralTimesOnce() throws InterruptedException {
+        final Key project = new Key.From("def");
+        this.asto.save(new Key.From(project, "def-0.1.whl"), new Content.From(new byte[]{}))
+            .join();
+        final AtomicInteger renders = new AtomicInteger();
+        final CompletableFuture<Void> gate = new CompletableFuture<>();
+        final IndexQueue queue = new IndexQueue(
+            new Storage.Wrap(this.asto) {
+                @Override
+                public CompletableFuture<Collection<Key>> list(final Key key) {
+                    final CompletableFuture<Collection<Key>> res;
+                    if (key.equals(project)) {
+                        renders.incrementAndGet();
+                        res = gate.thenCompose(nothing -> super.list(key));
+                    } else {
+                        res = super.list(key);
+                    }
+                    return res;
+                }
+            },
+            new IndexCache(), 1, 10
+        );
+        final Key marker = new Key.From(".pypi/.queue/def");
+        queue.add(project, "").toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Saves project to storage queue before rendering",
+            this.asto.exists(marker).join(),
+            new IsEqual<>(true)
+        );
+        queue.add(project, "").toCompletableFuture().join();
+        queue.add(project, "").toCompletableFuture().join();
+        gate.complete(null);
+        this.awaits(marker, false);
+        MatcherAssert.assertThat(
+            "Renders project queued while rendering once",
+            renders.get(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void rendersProjectsLeftByPreviousRun() throws InterruptedException {
+        final Key left = new Key.From("ghi");
+        this.asto.save(new Key.From(left, "ghi-0.1.whl"), new Content.From(new byte[]{})).join();
+        this.asto.save(new Key.From(".pypi/.queue/ghi"), new Content.From(new byte[]{})).join();
+        final Key project = new Key.From("jkl");
+        this.asto.save(new Key.From(project, "jkl-0.1.whl"), new Content.From(new byte[]{}))
+            .join();
+        new IndexQueue(this.asto, new IndexCache()).add(project, "")
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            this.awaits(new Key.From(".pypi/ghi/pages/index.html"), true),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void invalidatesCachedPagesAfterRender() throws InterruptedException {
+        final Key project = new Key.From("mno");
+        this.asto.save(new Key.From(project, "mno-0.1.whl"), new Content.From(new byte[]{}))
+            .join();
+        final IndexCache cache = new IndexCache();
+        final AtomicInteger loads = new AtomicInteger();
+        final Supplier<CompletionStage<IndexCache.Page>> load = () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(
+                new IndexCache.Page(Optional.empty(), new byte[0])
+            );
+        };
+        cache.page(project, "", IndexFormat.HTML, PageEncoding.IDENTITY, load)
+            .toCompletableFuture().join();
+        new IndexQueue(this.asto, cache).add(project, "").toCompletableFuture().join();
+        this.awaits(new Key.From(".pypi/.queue/mno"), false);
+        cache.page(project, "", IndexFormat.HTML, PageEncoding.IDENTITY, load)
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            loads.get(),
+            new IsEqual<>(2)
+        );
+    }
+
+    /**
+     * Wait for the key to exist or to be removed.
+     * @param key Key
+     * @param exists Expected existence
+     * @return Key existence when waiting is over
+     * @throws InterruptedException If interrupted
+     */
+    private boolean awaits(final Key key, final boolean exists) throws InterruptedException {
+        // @checkstyle MagicNumberCheck (1 line)
+        for (int attempt = 0; attempt < 50 && this.asto.exists(key).join() != exists; ++attempt) {
+            // @checkstyle MagicNumberCheck (1 line)
+            Thread.sleep(100);
+        }
+        return this.asto.exists(key).join();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MetadataParsers}.
+ * @since 1.0
+ */
+class MetadataParsersTest {
+
+    @Test
+    void returnsParseResult() {
+        MatcherAssert.assertThat(
+            new MetadataParsers().parse(() -> "abc").join(),
+            new IsEqual<>("abc")
+        );
+    }
+
+    @Test
+    void failsAndInterruptsStalledParser() throws InterruptedException {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CompletableFuture<String> res = new MetadataParsers(1, Duration.ofMillis(100))
+            .parse(
+                () -> {
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (final InterruptedException ex) {
+                        interrupted.countDown();
+                    }
+                    return "abc";
+                }
+            );
+        MatcherAssert.assertThat(
+            "Fails with timeout",
+            Assertions.assertThrows(CompletionException.class, res::join).getCause(),
+            Matchers.instanceOf(TimeoutException.class)
+        );
+        MatcherAssert.assertThat(
+            "Interrupts parser",
+            interrupted.await(1, TimeUnit.MINUTES),
+            new IsEqual<>(true)
+        );
+    }
+}
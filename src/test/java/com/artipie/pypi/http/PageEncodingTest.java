@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.http.Headers;
+import io.reactivex.Flowable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link PageEncoding}.
+ * @since 1.0
+ */
+class PageEncodingTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "gzip,GZIP",
+        "'deflate, gzip;q=0.5',GZIP",
+        "'GZIP; q=1',GZIP",
+        "*,GZIP",
+        "'gzip;q=0, *',IDENTITY",
+        "'*;q=0',IDENTITY",
+        "'br, deflate',IDENTITY",
+        "identity,IDENTITY"
+    })
+    void choosesEncodingByHeader(final String header, final PageEncoding encoding) {
+        MatcherAssert.assertThat(
+            PageEncoding.of(new Headers.From("Accept-Encoding", header)),
+            new IsEqual<>(encoding)
+        );
+    }
+
+    @Test
+    void usesIdentityByDefault() {
+        MatcherAssert.assertThat(
+            PageEncoding.of(Collections.emptyList()),
+            new IsEqual<>(PageEncoding.IDENTITY)
+        );
+    }
+
+    @Test
+    void gzipsPageByParts() throws IOException {
+        final Flowable<ByteBuffer> page = Flowable.just("<html>", "<a>abc</a>", "</html>")
+            .map(part -> ByteBuffer.wrap(part.getBytes(StandardCharsets.UTF_8)));
+        MatcherAssert.assertThat(
+            new String(
+                IOUtils.toByteArray(
+                    new GZIPInputStream(
+                        new ByteArrayInputStream(
+                            new PublisherAs(new Content.From(PageEncoding.GZIP.encode(page)))
+                                .bytes().toCompletableFuture().join()
+                        )
+                    )
+                ),
+                StandardCharsets.UTF_8
+            ),
+            new IsEqual<>("<html><a>abc</a></html>")
+        );
+    }
+}
@@ -89,17 +89,49 @@ class PySliceTest {
             ),
             Matchers.allOf(
                 new RsHasBody(
-                    new IsString(new StringContains("alarmtime-0.1.5.tar.gz"))
+                    new IsString(new StringContains("<a href=\"/simple/\">simple</a>"))
                 ),
                 new RsHasStatus(RsStatus.OK),
                 new RsHasHeaders(
                     new Header("Content-type", "text/html"),
-                    new Header("Content-Length", "193")
+                    new Header("Content-Length", "83")
                 )
             )
         );
     }
 
+    @Test
+    void returnsCoreMetadata() {
+        final byte[] content = "Metadata-Version: 2.1\nName: simple\n".getBytes();
+        this.storage.save(
+            new Key.From(".pypi/simple/simple-0.1-py3-none-any.whl.metadata"),
+            new Content.From(content)
+        ).join();
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine("GET", "/simple/simple-0.1-py3-none-any.whl.metadata").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            Matchers.allOf(
+                new RsHasBody(content),
+                new RsHasStatus(RsStatus.OK)
+            )
+        );
+    }
+
+    @Test
+    void returnsNotFoundForAbsentCoreMetadata() {
+        MatcherAssert.assertThat(
+            this.slice.response(
+                new RequestLine("GET", "/simple/simple-0.2-py3-none-any.whl.metadata").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
     @Test
     void redirectsToNormalizedPath() {
         MatcherAssert.assertThat(
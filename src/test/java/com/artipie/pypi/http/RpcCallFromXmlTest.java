@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.http.ArtipieHttpException;
+import com.artipie.http.rs.RsStatus;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SearchSlice.RpcCallFromXml}.
+ * @since 0.7
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public class RpcCallFromXmlTest {
+
+    @Test
+    void readsStructAndArrayParams() {
+        final RpcCall call = new SearchSlice.RpcCallFromXml(
+            new Content.From(this.xml().getBytes())
+        ).call().toCompletableFuture().join();
+        final Map<String, Object> struct = new HashMap<>();
+        struct.put("name", Collections.singletonList("my_project"));
+        struct.put("summary", Collections.singletonList("abcdef"));
+        MatcherAssert.assertThat(
+            "Reads method name",
+            call.method(),
+            new IsEqual<>("search")
+        );
+        MatcherAssert.assertThat(
+            "Reads struct of arrays",
+            call.params().get(0),
+            new IsEqual<>(struct)
+        );
+        MatcherAssert.assertThat(
+            "Reads string",
+            call.params().get(1),
+            new IsEqual<>("or")
+        );
+    }
+
+    @Test
+    void readsMethodCall() {
+        final RpcCall call = new SearchSlice.RpcCallFromXml(
+            new Content.From(
+                String.join(
+                    "",
+                    "<?xml version='1.0'?><methodCall><methodName>release_urls</methodName>",
+                    "<params><param><value><string>flask</string></value></param>",
+                    "<param><value>3.0.0</value></param></params></methodCall>"
+                ).getBytes()
+            )
+        ).call().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Reads method name",
+            call.method(),
+            new IsEqual<>("release_urls")
+        );
+        MatcherAssert.assertThat(
+            "Reads params",
+            call.params(),
+            Matchers.contains("flask", "3.0.0")
+        );
+    }
+
+    @Test
+    void rejectsOversizedBody() {
+        final Throwable cause = Assertions.assertThrows(
+            CompletionException.class,
+            () -> new SearchSlice.RpcCallFromXml(new Content.From(this.xml().getBytes()), 100)
+                .call().toCompletableFuture().join()
+        ).getCause();
+        MatcherAssert.assertThat(
+            ((ArtipieHttpException) cause).status(),
+            new IsEqual<>(RsStatus.PAYLOAD_TOO_LARGE)
+        );
+    }
+
+    @Test
+    void failsOnInvalidXml() {
+        MatcherAssert.assertThat(
+            Assertions.assertThrows(
+                CompletionException.class,
+                () -> new SearchSlice.RpcCallFromXml(
+                    new Content.From("<?xml version='1.0'?>\n<a>1</a>".getBytes())
+                ).call().toCompletableFuture().join()
+            ).getCause(),
+            new IsInstanceOf(IllegalArgumentException.class)
+        );
+    }
+
+    private String xml() {
+        return String.join(
+            "\n", "<?xml version='1.0'?>",
+            "<methodCall>",
+            "<methodName>search</methodName>",
+            "<params>",
+            "<param>",
+            "<value><struct>",
+            "<member>",
+            "<name>name</name>",
+            "<value><array><data>",
+            "<value><string>my_project</string></value>",
+            "</data></array></value>",
+            "</member>",
+            "<member>",
+            "<name>summary</name>",
+            "<value><array><data>",
+            "<value><string>abcdef</string></value>",
+            "</data></array></value>",
+            "</member>",
+            "</struct></value>",
+            "</param>",
+            "<param>",
+            "<value><string>or</string></value>",
+            "</param>",
+            "</params>",
+            "</methodCall>"
+        );
+    }
+
+}
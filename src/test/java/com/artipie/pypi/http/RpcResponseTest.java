@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.StringContains;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link RpcResponse}.
+ * @since 1.0
+ */
+class RpcResponseTest {
+
+    @Test
+    void writesNestedValues() {
+        MatcherAssert.assertThat(
+            new String(
+                new RpcResponse().struct()
+                    .member("name").string("a<b & c>")
+                    .member("list").array().integer(1).bool(true).end()
+                    .member("size").integer(2)
+                    .end().bytes(),
+                StandardCharsets.UTF_8
+            ),
+            new IsEqual<>(
+                String.join(
+                    "\n",
+                    "<?xml version='1.0'?>",
+                    "<methodResponse>",
+                    "<params>",
+                    "<param>",
+                    "<value><struct>",
+                    "<member>",
+                    "<name>name</name>",
+                    "<value><string>a&lt;b &amp; c&gt;</string></value>",
+                    "</member>",
+                    "<member>",
+                    "<name>list</name>",
+                    "<value><array><data>",
+                    "<value><int>1</int></value>",
+                    "<value><boolean>1</boolean></value>",
+                    "</data></array></value>",
+                    "</member>",
+                    "<member>",
+                    "<name>size</name>",
+                    "<value><int>2</int></value>",
+                    "</member>",
+                    "</struct></value>",
+                    "</param>",
+                    "</params>",
+                    "</methodResponse>",
+                    ""
+                )
+            )
+        );
+    }
+
+    @Test
+    void writesFault() {
+        MatcherAssert.assertThat(
+            new String(RpcResponse.fault(-1, "Oops"), StandardCharsets.UTF_8),
+            new StringContains(
+                String.join(
+                    "\n",
+                    "<methodResponse>",
+                    "<fault>",
+                    "<value><struct>",
+                    "<member>",
+                    "<name>faultCode</name>",
+                    "<value><int>-1</int></value>",
+                    "</member>"
+                )
+            )
+        );
+    }
+}
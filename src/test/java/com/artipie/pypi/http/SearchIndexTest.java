@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.pypi.meta.PackageInfo;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SearchIndex}.
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class SearchIndexTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage asto;
+
+    /**
+     * Search index.
+     */
+    private SearchIndex index;
+
+    @BeforeEach
+    void init() {
+        this.asto = new InMemoryStorage();
+        this.index = new SearchIndex(this.asto);
+        this.index.add(SearchIndexTest.info("requests", "2.31.0", "Python HTTP for Humans."));
+        this.index.add(
+            SearchIndexTest.info("requests_toolbelt", "1.0.0", "A utility belt for requests")
+        );
+        this.index.add(SearchIndexTest.info("Flask", "3.0.0", "A simple web framework"));
+    }
+
+    @Test
+    void findsByNameWordPrefix() {
+        MatcherAssert.assertThat(
+            this.found(Collections.singletonMap("name", Arrays.asList("Req")), "and"),
+            Matchers.contains("requests", "requests_toolbelt")
+        );
+        MatcherAssert.assertThat(
+            this.found(Collections.singletonMap("name", Arrays.asList("toolb")), "and"),
+            Matchers.contains("requests_toolbelt")
+        );
+    }
+
+    @Test
+    void findsBySummaryWords() {
+        MatcherAssert.assertThat(
+            this.found(Collections.singletonMap("summary", Arrays.asList("web frame")), "and"),
+            Matchers.contains("Flask")
+        );
+    }
+
+    @Test
+    void combinesTermsWithOperator() {
+        final Map<String, List<String>> spec = new HashMap<>();
+        spec.put("name", Arrays.asList("requests"));
+        spec.put("summary", Arrays.asList("humans"));
+        MatcherAssert.assertThat(
+            "Matches all terms",
+            this.found(spec, "and"),
+            Matchers.contains("requests")
+        );
+        spec.put("summary", Arrays.asList("simple"));
+        MatcherAssert.assertThat(
+            "Matches any term",
+            this.found(spec, "or"),
+            Matchers.contains("Flask", "requests", "requests_toolbelt")
+        );
+    }
+
+    @Test
+    void keepsLatestRelease() {
+        this.index.add(SearchIndexTest.info("Flask", "3.1.0", "A microframework"));
+        this.index.add(SearchIndexTest.info("flask", "2.9.1", "Old release"));
+        MatcherAssert.assertThat(
+            "Finds by latest summary",
+            this.index.search(
+                new SearchQuery(Collections.singletonMap("summary", Arrays.asList("micro")), "or")
+            ).toCompletableFuture().join().get(0).version(),
+            new IsEqual<>("3.1.0")
+        );
+        MatcherAssert.assertThat(
+            "Does not find by replaced summary",
+            this.found(Collections.singletonMap("summary", Arrays.asList("simple")), "or"),
+            Matchers.empty()
+        );
+    }
+
+    @Test
+    void replacesSummaryWithRepeatedWords() {
+        this.index.add(SearchIndexTest.info("foo", "1.0", "Python tools for Python"));
+        this.index.add(SearchIndexTest.info("foo", "1.1", "Tools for tools"));
+        MatcherAssert.assertThat(
+            "Finds by new summary",
+            this.found(Collections.singletonMap("summary", Arrays.asList("tools")), "and"),
+            Matchers.contains("foo")
+        );
+        MatcherAssert.assertThat(
+            "Does not find by replaced summary",
+            this.found(Collections.singletonMap("summary", Arrays.asList("python")), "and"),
+            Matchers.contains("requests")
+        );
+    }
+
+    @Test
+    void buildsFromStorage() {
+        new TestResource("pypi_repo/artipie-sample-0.2.tar.gz")
+            .saveTo(this.asto, new Key.From("artipie-sample", "artipie-sample-0.2.tar.gz"));
+        new TestResource("pypi_repo/artipie-sample-0.2.tar.gz").saveTo(
+            this.asto, new Key.From("other", "artipie-sample", "artipie-sample-0.2.tar.gz")
+        );
+        MatcherAssert.assertThat(
+            new SearchIndex(this.asto).search(
+                new SearchQuery(Collections.singletonMap("name", Arrays.asList("sample")), "and")
+            ).toCompletableFuture().join().stream()
+                .map(SearchIndex.Entry::version).collect(Collectors.toList()),
+            Matchers.contains("0.2")
+        );
+    }
+
+    @Test
+    void startsBuildAgainIfItFailed() {
+        new TestResource("pypi_repo/artipie-sample-0.2.tar.gz")
+            .saveTo(this.asto, new Key.From("artipie-sample", "artipie-sample-0.2.tar.gz"));
+        final AtomicInteger lists = new AtomicInteger();
+        final SearchIndex failing = new SearchIndex(
+            new Storage.Wrap(this.asto) {
+                @Override
+                public CompletableFuture<Collection<Key>> list(final Key prefix) {
+                    final CompletableFuture<Collection<Key>> res;
+                    if (lists.incrementAndGet() <= 2) {
+                        res = new CompletableFuture<>();
+                        res.completeExceptionally(new IllegalStateException("list failed"));
+                    } else {
+                        res = super.list(prefix);
+                    }
+                    return res;
+                }
+            }
+        );
+        final SearchQuery query = new SearchQuery(
+            Collections.singletonMap("name", Arrays.asList("sample")), "and"
+        );
+        MatcherAssert.assertThat(
+            "Starts build when created",
+            lists.get(),
+            new IsEqual<>(1)
+        );
+        Assertions.assertThrows(
+            CompletionException.class, () -> failing.search(query).toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            "Builds again on the next search",
+            failing.search(query).toCompletableFuture().join().stream()
+                .map(SearchIndex.Entry::version).collect(Collectors.toList()),
+            Matchers.contains("0.2")
+        );
+    }
+
+    private List<String> found(final Map<String, List<String>> spec, final String operator) {
+        return this.index.search(new SearchQuery(spec, operator)).toCompletableFuture().join()
+            .stream().map(SearchIndex.Entry::name).collect(Collectors.toList());
+    }
+
+    private static PackageInfo info(final String name, final String version,
+        final String summary) {
+        return new PackageInfo.FromMetadata(
+            String.join(
+                "\n",
+                "Metadata-Version: 2.1",
+                String.format("Name: %s", name),
+                String.format("Version: %s", version),
+                String.format("Summary: %s", summary),
+                ""
+            )
+        );
+    }
+}
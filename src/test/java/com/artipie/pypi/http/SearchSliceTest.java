@@ -17,10 +17,15 @@ import com.artipie.http.hm.SliceHasResponse;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rq.RqMethod;
 import com.artipie.http.rs.RsStatus;
+import com.artipie.pypi.meta.FileRecords;
 import com.artipie.pypi.meta.Metadata;
+import java.nio.charset.StandardCharsets;
 import org.cactoos.map.MapEntry;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -53,7 +58,7 @@ class SearchSliceTest {
                     new RsHasStatus(RsStatus.OK),
                     new RsHasHeaders(
                         new MapEntry<>("content-type", "text/xml"),
-                        new MapEntry<>("content-length", "115")
+                        new MapEntry<>("content-length", "138")
                     ),
                     new RsHasBody(SearchSlice.empty())
                 ),
@@ -98,6 +103,262 @@ class SearchSliceTest {
         );
     }
 
+    @Test
+    void returnsLatestVersionInfo() {
+        final TestResource latest = new TestResource("pypi_repo/artipie-sample-2.1.tar.bz2");
+        latest.saveTo(this.storage, new Key.From("artipie-sample", "artipie-sample-2.10.tar.bz2"));
+        new TestResource("pypi_repo/artipie-sample-0.2.tar.gz").saveTo(
+            this.storage, new Key.From("artipie-sample", "artipie-sample-2.9.tar.gz")
+        );
+        MatcherAssert.assertThat(
+            new SearchSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasBody(
+                    SearchSlice.found(
+                        new Metadata.FromArchive(
+                            latest.asInputStream(), "artipie-sample-2.1.tar.bz2"
+                        ).read()
+                    )
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(this.xml("artipie-sample").getBytes())
+            )
+        );
+    }
+
+    @Test
+    void listsPackages() {
+        this.sample();
+        MatcherAssert.assertThat(
+            new SearchSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasBody(
+                    Matchers.allOf(
+                        new StringContains("<value><string>artipie-sample</string></value>"),
+                        new StringContains("<value><string>alarmtime</string></value>")
+                    ),
+                    StandardCharsets.UTF_8
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(SearchSliceTest.call("list_packages").getBytes())
+            )
+        );
+    }
+
+    @Test
+    void listsPackageReleasesLatestFirst() {
+        this.sample();
+        MatcherAssert.assertThat(
+            new SearchSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasBody(
+                    new StringContains(
+                        String.join(
+                            "\n",
+                            "<value><string>2.1</string></value>",
+                            "<value><string>0.2</string></value>"
+                        )
+                    ),
+                    StandardCharsets.UTF_8
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(
+                    SearchSliceTest.call("package_releases", "Artipie_Sample").getBytes()
+                )
+            )
+        );
+    }
+
+    @Test
+    void returnsReleaseUrls() {
+        this.sample();
+        new FileRecords(this.storage)
+            .get(new Key.From("artipie-sample", "artipie_sample-0.2-py3-none-any.whl"))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Returns release files",
+            new SearchSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasBody(
+                    Matchers.allOf(
+                        new StringContains(
+                            "<value><string>artipie_sample-0.2-py3-none-any.whl</string></value>"
+                        ),
+                        new StringContains("<value><string>bdist_wheel</string></value>"),
+                        new StringContains("<value><string>artipie-sample-0.2.tar.gz</string>"),
+                        new StringContains("<value><string>sdist</string></value>"),
+                        new StringContains(
+                            "<value><string>/artipie-sample/artipie-sample-0.2.tar.gz</string>"
+                        ),
+                        new StringContains("<name>sha256</name>"),
+                        new IsNot<>(new StringContains("artipie-sample-2.1.tar.bz2"))
+                    ),
+                    StandardCharsets.UTF_8
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(
+                    SearchSliceTest.call("release_urls", "artipie-sample", "0.2").getBytes()
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Does not calculate absent file records",
+            this.storage.exists(new Key.From(".pypi/artipie-sample/artipie-sample-0.2.tar.gz.json"))
+                .join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void returnsReleaseData() {
+        this.sample();
+        MatcherAssert.assertThat(
+            new SearchSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasBody(
+                    Matchers.allOf(
+                        new StringContains("<name>version</name>\n<value><string>2.1</string>"),
+                        new StringContains("<name>summary</name>"),
+                        new StringContains("<name>classifiers</name>"),
+                        new StringContains(
+                            "<name>package_url</name>\n<value><string>/artipie-sample/</string>"
+                        )
+                    ),
+                    StandardCharsets.UTF_8
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(
+                    SearchSliceTest.call("release_data", "artipie-sample", "2.1").getBytes()
+                )
+            )
+        );
+    }
+
+    @Test
+    void returnsChangelogSinceSerial() {
+        final Changelog changelog = new Changelog(this.storage);
+        changelog.append("alarmtime", "0.1.5", "add source file alarmtime-0.1.5.tar.gz")
+            .toCompletableFuture().join();
+        changelog.append("artipie-sample", "0.2", "add source file artipie-sample-0.2.tar.gz")
+            .toCompletableFuture().join();
+        final SearchSlice slice = new SearchSlice(
+            new SearchIndex(this.storage), new Catalog(this.storage), changelog
+        );
+        MatcherAssert.assertThat(
+            "Returns last serial",
+            slice,
+            new SliceHasResponse(
+                new RsHasBody(
+                    new StringContains("<value><int>2</int></value>"), StandardCharsets.UTF_8
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(SearchSliceTest.call("changelog_last_serial").getBytes())
+            )
+        );
+        MatcherAssert.assertThat(
+            "Returns events after serial",
+            slice,
+            new SliceHasResponse(
+                new RsHasBody(
+                    Matchers.allOf(
+                        new StringContains("<value><string>artipie-sample</string></value>"),
+                        new StringContains(
+                            "<value><string>add source file artipie-sample-0.2.tar.gz</string>"
+                        ),
+                        new StringContains("<value><int>2</int></value>"),
+                        new IsNot<>(new StringContains("alarmtime"))
+                    ),
+                    StandardCharsets.UTF_8
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(SearchSliceTest.call("changelog_since_serial", "1").getBytes())
+            )
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "release_data,-32602",
+        "changelog_since_serial,-32602",
+        "release_urls,-32602",
+        "package_releases,-32602",
+        "changelog,-32601"
+    })
+    void returnsFaultOnInvalidCall(final String method, final String code) {
+        MatcherAssert.assertThat(
+            new SearchSlice(this.storage),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.OK),
+                    new RsHasBody(
+                        new StringContains(
+                            String.format(
+                                "<name>faultCode</name>\n<value><int>%s</int></value>", code
+                            )
+                        ),
+                        StandardCharsets.UTF_8
+                    )
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(SearchSliceTest.call(method).getBytes())
+            )
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "<methodCall><methodName>search</methodName>",
+        "<?xml version='1.0'?><methodResponse></methodResponse>",
+        "<methodCall><params><param><value><struct></value></param></params></methodCall>",
+        "not xml at all"
+    })
+    void returnsBadRequestOnMalformedCall(final String xml) {
+        MatcherAssert.assertThat(
+            new SearchSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(xml.getBytes())
+            )
+        );
+    }
+
+    private void sample() {
+        new TestResource("pypi_repo/artipie_sample-0.2-py3-none-any.whl").saveTo(
+            this.storage,
+            new Key.From("artipie-sample", "artipie_sample-0.2-py3-none-any.whl")
+        );
+        new TestResource("pypi_repo/artipie-sample-0.2.tar.gz").saveTo(
+            this.storage, new Key.From("artipie-sample", "artipie-sample-0.2.tar.gz")
+        );
+        new TestResource("pypi_repo/artipie-sample-2.1.tar.bz2").saveTo(
+            this.storage, new Key.From("artipie-sample", "artipie-sample-2.1.tar.bz2")
+        );
+        new TestResource("pypi_repo/alarmtime-0.1.5.tar.gz").saveTo(
+            this.storage, new Key.From("alarmtime", "alarmtime-0.1.5.tar.gz")
+        );
+    }
+
+    private static String call(final String method, final String... params) {
+        final StringBuilder res = new StringBuilder("<?xml version='1.0'?>\n<methodCall>\n")
+            .append(String.format("<methodName>%s</methodName>\n<params>\n", method));
+        for (final String param : params) {
+            res.append(
+                String.format("<param><value><string>%s</string></value></param>\n", param)
+            );
+        }
+        return res.append("</params>\n</methodCall>").toString();
+    }
+
     private String xml(final String name) {
         return String.join(
             "\n", "<?xml version='1.0'?>",
@@ -9,19 +9,40 @@ import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.headers.Header;
 import com.artipie.http.hm.IsHeader;
+import com.artipie.http.hm.IsString;
 import com.artipie.http.hm.ResponseMatcher;
 import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasHeaders;
+import com.artipie.http.hm.RsHasStatus;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rs.RsStatus;
+import com.artipie.pypi.meta.FileRecord;
+import com.artipie.pypi.meta.FileRecords;
+import com.artipie.pypi.meta.Projects;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
 import io.reactivex.Flowable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
 import org.cactoos.map.MapEntry;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -49,24 +70,24 @@ class SliceIndexTest {
     }
 
     @Test
-    void returnsIndexListForRoot() {
-        final String path = "abc/abc-0.1.tar.gz";
-        final byte[] bytes = "abc".getBytes();
-        this.storage.save(new Key.From(path), new Content.From(bytes)).join();
+    void returnsProjectsListForRoot() {
+        this.storage.save(new Key.From("abc/abc-0.1.tar.gz"), new Content.From("abc".getBytes()))
+            .join();
+        this.storage.save(new Key.From("def/def-0.1.whl"), new Content.From("def".getBytes()))
+            .join();
         MatcherAssert.assertThat(
             new SliceIndex(this.storage).response(
                 new RequestLine("GET", "/").toString(),
                 Collections.emptyList(),
                 Flowable.empty()
             ),
-            new RsHasBody(SliceIndexTest.html(new MapEntry<>(path, bytes)))
+            new RsHasBody(SliceIndexTest.root("", "abc", "def"))
         );
     }
 
     @Test
-    void returnsIndexListForRootWithFullPathHeader() {
-        final byte[] bytes = "qwerty".getBytes();
-        this.storage.save(new Key.From("abc/abc-0.1.tar.gz"), new Content.From(bytes))
+    void returnsProjectsListForRootWithFullPathHeader() {
+        this.storage.save(new Key.From("abc/abc-0.1.tar.gz"), new Content.From("qwe".getBytes()))
             .join();
         MatcherAssert.assertThat(
             new SliceIndex(this.storage).response(
@@ -74,9 +95,24 @@ class SliceIndexTest {
                 new Headers.From(SliceIndexTest.HDR_FULL_PATH, "/username/pypi"),
                 Flowable.empty()
             ),
-            new RsHasBody(
-                SliceIndexTest.html(new MapEntry<>("username/pypi/abc/abc-0.1.tar.gz", bytes))
-            )
+            new RsHasBody(SliceIndexTest.root("/username/pypi", "abc"))
+        );
+    }
+
+    @Test
+    void returnsRegisteredProjectsForRoot() {
+        this.storage.save(new Key.From("abc/abc-0.1.tar.gz"), new Content.From("abc".getBytes()))
+            .join();
+        new Projects(this.storage, Key.ROOT).add("xyz").toCompletableFuture().join();
+        this.storage.save(new Key.From("ghi/ghi-0.1.tar.gz"), new Content.From("ghi".getBytes()))
+            .join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new RsHasBody(SliceIndexTest.root("", "abc", "xyz"))
         );
     }
 
@@ -103,6 +139,47 @@ class SliceIndexTest {
         );
     }
 
+    @Test
+    void readsRecordsWithConfiguredConcurrency() {
+        for (int idx = 0; idx < 10; idx = idx + 1) {
+            this.storage.save(
+                new Key.From("mno", String.format("mno-0.%d.whl", idx)), Content.EMPTY
+            ).join();
+        }
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final Storage slow = new Storage.Wrap(this.storage) {
+            @Override
+            public CompletableFuture<Content> value(final Key key) {
+                max.accumulateAndGet(active.incrementAndGet(), Math::max);
+                return CompletableFuture.runAsync(
+                    () -> {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(5);
+                        } catch (final InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        active.decrementAndGet();
+                    }
+                ).thenCompose(nothing -> super.value(key));
+            }
+        };
+        MatcherAssert.assertThat(
+            "Returns page",
+            new SliceIndex(slow, new IndexCache(), new Changelog(slow), 1).response(
+                new RequestLine("GET", "/mno").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.OK)
+        );
+        MatcherAssert.assertThat(
+            "Reads more records than allowed at once",
+            max.get(),
+            new IsEqual<>(1)
+        );
+    }
+
     @Test
     void returnsIndexListWithFullPathHeader() {
         final byte[] one = "1".getBytes();
@@ -186,26 +263,67 @@ class SliceIndexTest {
     }
 
     @Test
-    void returnsIndexListForEmptyStorage() {
+    void returnsNotFoundForEmptyStorage() {
         MatcherAssert.assertThat(
+            "Returns NOT_FOUND status",
             new SliceIndex(this.storage).response(
                 new RequestLine("GET", "/def").toString(),
                 Collections.emptyList(),
                 Flowable.empty()
             ),
-            new RsHasBody("<!DOCTYPE html>\n<html>\n  </body>\n\n</body>\n</html>".getBytes())
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+        MatcherAssert.assertThat(
+            "Does not write to storage",
+            this.storage.list(Key.ROOT).join(),
+            Matchers.emptyIterable()
         );
     }
 
     @Test
-    void returnsIndexListForEmptyStorageWithFullPath() {
+    void returnsNotFoundForEmptyStorageWithFullPath() {
         MatcherAssert.assertThat(
             new SliceIndex(this.storage).response(
                 new RequestLine("GET", "/def").toString(),
                 new Headers.From(SliceIndexTest.HDR_FULL_PATH, "/username/pypi/def"),
                 Flowable.empty()
             ),
-            new RsHasBody("<!DOCTYPE html>\n<html>\n  </body>\n\n</body>\n</html>".getBytes())
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
+    @Test
+    void returnsNotFoundForHiddenPath() {
+        this.storage.save(
+            new Key.From(".pypi", "def", "def-0.1.whl.json"), new Content.From("{}".getBytes())
+        ).join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/.pypi/def").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
+    @Test
+    void returnsBadRequestForInvalidPrefix() {
+        this.storage.save(new Key.From("def/def-0.1.whl"), new Content.From("1".getBytes()))
+            .join();
+        MatcherAssert.assertThat(
+            "Returns BAD_REQUEST status",
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/def").toString(),
+                new Headers.From(SliceIndexTest.HDR_FULL_PATH, "/../../evil/def"),
+                Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.BAD_REQUEST)
+        );
+        MatcherAssert.assertThat(
+            "Does not write to storage",
+            this.storage.list(Key.ROOT).join(),
+            Matchers.contains(new Key.From("def/def-0.1.whl"))
         );
     }
 
@@ -224,9 +342,212 @@ class SliceIndexTest {
             new ResponseMatcher(
                 RsStatus.OK,
                 new IsHeader("Content-Type", "text/html"),
-                new IsHeader("Content-Length", "179")
+                new IsHeader("Content-Length", "79")
+            )
+        );
+    }
+
+    @Test
+    void returnsLastChangelogSerial() {
+        this.storage.save(new Key.From("abc", "abc-0.2.tar.gz"), new Content.From(new byte[]{}))
+            .join();
+        final Changelog changelog = new Changelog(this.storage);
+        changelog.append("abc", "0.1", "add source file abc-0.1.tar.gz")
+            .toCompletableFuture().join();
+        changelog.append("abc", "0.2", "add source file abc-0.2.tar.gz")
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage, new IndexCache(), changelog).response(
+                new RequestLine("GET", "/abc/").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new ResponseMatcher(RsStatus.OK, new IsHeader("X-PyPI-Last-Serial", "2"))
+        );
+    }
+
+    @Test
+    void returnsNestedPageWithoutSerial() {
+        this.storage.save(
+            new Key.From("sub", "abc", "abc-0.2.tar.gz"), new Content.From(new byte[]{})
+        ).join();
+        final Changelog changelog = new Changelog(this.storage);
+        changelog.append("abc", "0.1", "add source file abc-0.1.tar.gz")
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage, new IndexCache(), changelog).response(
+                new RequestLine("GET", "/sub/abc/").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            Matchers.allOf(
+                new RsHasStatus(RsStatus.OK),
+                Matchers.not(
+                    new RsHasHeaders(
+                        new IsHeader("X-PyPI-Last-Serial", Matchers.any(String.class))
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void usesStoredDigests() {
+        final Key key = new Key.From("ghi", "ghi-0.3.whl");
+        this.storage.save(key, new Content.From("ghi".getBytes())).join();
+        new FileRecords(this.storage).save(key, new FileRecord("0123abc", 3))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/ghi").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new RsHasBody(
+                new IsString(
+                    new StringContains("<a href=\"/ghi/ghi-0.3.whl#sha256=0123abc\">")
+                )
+            )
+        );
+    }
+
+    @Test
+    void returnsJsonProjectPage() {
+        final Key key = new Key.From("jkl", "jkl-0.1.whl");
+        this.storage.save(key, new Content.From("jkl".getBytes())).join();
+        new FileRecords(this.storage).save(
+            key, new FileRecord("abc012", 3).withUploadTime(Instant.parse("2022-05-01T10:15:30Z"))
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/jkl/").toString(),
+                new Headers.From(
+                    new Header(SliceIndexTest.HDR_FULL_PATH, "/pypi/jkl/"),
+                    new Header("Accept", "application/vnd.pypi.simple.v1+json")
+                ),
+                Flowable.empty()
+            ),
+            Matchers.allOf(
+                new ResponseMatcher(
+                    RsStatus.OK,
+                    new IsHeader("Content-Type", "application/vnd.pypi.simple.v1+json")
+                ),
+                new RsHasBody(
+                    String.join(
+                        "",
+                        "{\"name\":\"jkl\",\"files\":[{\"filename\":\"jkl-0.1.whl\",",
+                        "\"url\":\"/pypi/jkl/jkl-0.1.whl\",\"hashes\":{\"sha256\":\"abc012\"},",
+                        "\"size\":3,\"upload-time\":\"2022-05-01T10:15:30Z\"}],",
+                        "\"meta\":{\"api-version\":\"1.0\"}}"
+                    ).getBytes()
+                )
+            )
+        );
+    }
+
+    @Test
+    void returnsJsonRootPage() {
+        this.storage.save(new Key.From("mno/mno-0.1.whl"), new Content.From("mno".getBytes()))
+            .join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/").toString(),
+                new Headers.From("Accept", "application/vnd.pypi.simple.v1+json"),
+                Flowable.empty()
+            ),
+            new RsHasBody(
+                "{\"projects\":[{\"name\":\"mno\"}],\"meta\":{\"api-version\":\"1.0\"}}"
+                    .getBytes()
+            )
+        );
+    }
+
+    @Test
+    void returnsNotModifiedForCurrentTag() {
+        final Key project = new Key.From("pqr");
+        this.storage.save(new Key.From(project, "pqr-0.1.whl"), new Content.From(new byte[]{}))
+            .join();
+        new IndexPage(this.storage, project, "").update().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Returns page with tag",
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/pqr/").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new ResponseMatcher(
+                RsStatus.OK,
+                new IsHeader("ETag", "\"1-html\""),
+                new IsHeader("Cache-Control", "no-cache")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Returns not modified for current tag",
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/pqr/").toString(),
+                new Headers.From("If-None-Match", "\"1-html\""),
+                Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_MODIFIED)
+        );
+        new IndexPage(this.storage, project, "").update().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Returns page for outdated tag",
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/pqr/").toString(),
+                new Headers.From("If-None-Match", "\"1-html\""),
+                Flowable.empty()
+            ),
+            new ResponseMatcher(RsStatus.OK, new IsHeader("ETag", "\"2-html\""))
+        );
+    }
+
+    @Test
+    void returnsGzippedPage() throws IOException {
+        final Key project = new Key.From("stu");
+        final byte[] bytes = "stu".getBytes();
+        this.storage.save(new Key.From(project, "stu-0.1.whl"), new Content.From(bytes)).join();
+        new IndexPage(this.storage, project, "").update().toCompletableFuture().join();
+        final Response rsp = new SliceIndex(this.storage).response(
+            new RequestLine("GET", "/stu/").toString(),
+            new Headers.From("Accept-Encoding", "br;q=1.0, gzip;q=0.8"),
+            Flowable.empty()
+        );
+        MatcherAssert.assertThat(
+            "Returns gzip encoded page",
+            rsp,
+            new ResponseMatcher(
+                RsStatus.OK,
+                new IsHeader("Content-Encoding", "gzip"),
+                new IsHeader("ETag", "\"1-html-gzip\"")
             )
         );
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        rsp.send(
+            (status, headers, content) -> Flowable.fromPublisher(content).doOnNext(
+                buf -> {
+                    final byte[] arr = new byte[buf.remaining()];
+                    buf.get(arr);
+                    body.write(arr);
+                }
+            ).ignoreElements().to(CompletableInterop.await())
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Page is not gzipped",
+            IOUtils.toByteArray(
+                new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))
+            ),
+            new IsEqual<>(SliceIndexTest.html(new MapEntry<>("stu/stu-0.1.whl", bytes)))
+        );
+    }
+
+    private static byte[] root(final String prefix, final String... names) {
+        return String.format(
+            "<!DOCTYPE html>\n<html>\n  </body>\n%s\n</body>\n</html>",
+            Stream.of(names).map(
+                name -> String.format("<a href=\"%s/%s/\">%s</a><br/>", prefix, name, name)
+            ).collect(Collectors.joining())
+        ).getBytes();
     }
 
     private static byte[] html(final Map.Entry<String, byte[]>... items) {
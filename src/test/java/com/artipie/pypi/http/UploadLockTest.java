@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.ArtipieHttpException;
+import com.artipie.http.rs.RsStatus;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link UploadLock}.
+ * @since 1.0
+ */
+class UploadLockTest {
+
+    @Test
+    void rejectsFileBeingUploaded() {
+        final Set<String> uploading = ConcurrentHashMap.newKeySet();
+        final InMemoryStorage asto = new InMemoryStorage();
+        final String name = "my_project-0.1-py3-none-any.whl";
+        final UploadLock first = new UploadLock(uploading, asto, Key.ROOT);
+        first.acquire(name).toCompletableFuture().join();
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class,
+            () -> new UploadLock(uploading, asto, Key.ROOT).acquire(name)
+                .toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            "Fails with http error",
+            err.getCause(),
+            new IsInstanceOf(ArtipieHttpException.class)
+        );
+        MatcherAssert.assertThat(
+            "Fails with conflict status",
+            ((ArtipieHttpException) err.getCause()).status(),
+            new IsEqual<>(RsStatus.CONFLICT)
+        );
+        first.release();
+        MatcherAssert.assertThat(
+            "Releases lock",
+            uploading.isEmpty(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void doesNotLockInvalidFilename() {
+        final Set<String> uploading = ConcurrentHashMap.newKeySet();
+        new UploadLock(uploading, new InMemoryStorage(), Key.ROOT).acquire("readme.txt")
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            uploading.isEmpty(),
+            new IsEqual<>(true)
+        );
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.test.TestResource;
+import com.artipie.pypi.meta.PackageInfo;
+import io.reactivex.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link UploadStream}.
+ * @since 1.0
+ */
+class UploadStreamTest {
+
+    @Test
+    void readsMetadataAndDigestsWhilePassingBytes() {
+        final String name = "artipie_sample-0.2-py3-none-any.whl";
+        final byte[] bytes = new TestResource(String.format("pypi_repo/%s", name)).asBytes();
+        final int half = bytes.length / 2;
+        final UploadStream file = new UploadStream(
+            Flowable.just(
+                ByteBuffer.wrap(Arrays.copyOfRange(bytes, 0, half)),
+                ByteBuffer.wrap(Arrays.copyOfRange(bytes, half, bytes.length))
+            ),
+            name,
+            new MetadataParsers()
+        );
+        MatcherAssert.assertThat(
+            "Passes bytes as is",
+            new PublisherAs(new Content.From(file.content())).bytes()
+                .toCompletableFuture().join(),
+            new IsEqual<>(bytes)
+        );
+        final PackageInfo info = file.info().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Reads package metadata",
+            info.name(),
+            new IsEqual<>("artipie-sample")
+        );
+        MatcherAssert.assertThat(
+            "Calculates digests",
+            file.digests(),
+            Matchers.allOf(
+                Matchers.hasEntry("sha256", DigestUtils.sha256Hex(bytes)),
+                Matchers.hasEntry("md5", DigestUtils.md5Hex(bytes))
+            )
+        );
+        MatcherAssert.assertThat(
+            "Calculates size",
+            file.record().size(),
+            new IsEqual<>((long) bytes.length)
+        );
+    }
+
+    @Test
+    void passesArchiveLargerThanParserQueue() throws IOException {
+        final byte[] data = new byte[4 * 1024 * 1024];
+        new Random(0).nextBytes(data);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("abc/data.bin"));
+            zip.write(data);
+            zip.putNextEntry(new ZipEntry("abc-0.1.dist-info/METADATA"));
+            zip.write("Metadata-Version: 2.1\nName: abc\nVersion: 0.1\n".getBytes());
+        }
+        final byte[] bytes = out.toByteArray();
+        final int chunk = 64 * 1024;
+        final UploadStream file = new UploadStream(
+            Flowable.range(0, (bytes.length + chunk - 1) / chunk).map(
+                idx -> ByteBuffer.wrap(
+                    Arrays.copyOfRange(
+                        bytes, idx * chunk, Math.min(bytes.length, (idx + 1) * chunk)
+                    )
+                )
+            ),
+            "abc-0.1-py3-none-any.whl",
+            new MetadataParsers()
+        );
+        MatcherAssert.assertThat(
+            "Passes bytes as is",
+            new PublisherAs(new Content.From(file.content())).bytes()
+                .toCompletableFuture().join(),
+            new IsEqual<>(bytes)
+        );
+        MatcherAssert.assertThat(
+            "Reads package metadata",
+            file.info().toCompletableFuture().join().name(),
+            new IsEqual<>("abc")
+        );
+    }
+
+    @Test
+    void calculatesBlake2b() {
+        final UploadStream file = new UploadStream(
+            Flowable.just(ByteBuffer.wrap("abc".getBytes(StandardCharsets.US_ASCII))),
+            "abc.whl",
+            new MetadataParsers()
+        );
+        Flowable.fromPublisher(file.content()).blockingSubscribe();
+        MatcherAssert.assertThat(
+            file.digests().get("blake2_256"),
+            new IsEqual<>("bddd813c634239723171ef3fee98579b94964e3bb1cb3e427262c8c068d52319")
+        );
+    }
+
+    @Test
+    void failsMetadataOfInvalidArchive() {
+        final UploadStream file = new UploadStream(
+            Flowable.just(ByteBuffer.wrap("not an archive".getBytes(StandardCharsets.US_ASCII))),
+            "abc-0.1.tar.gz",
+            new MetadataParsers()
+        );
+        Flowable.fromPublisher(file.content()).blockingSubscribe();
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> file.info().toCompletableFuture().join()
+        );
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.pypi.meta.CoreMetadata;
+import com.artipie.pypi.meta.FileRecord;
+import com.artipie.pypi.meta.FileRecords;
+import com.artipie.pypi.meta.MetaKey;
+import com.artipie.pypi.meta.PackageInfo;
+import com.artipie.pypi.meta.Projects;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link UploadVerifier}.
+ * @since 1.0
+ */
+class UploadVerifierTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage asto;
+
+    @BeforeEach
+    void init() {
+        this.asto = new InMemoryStorage();
+    }
+
+    @Test
+    void addsCoreMetadataOfVerifiedWheel() {
+        final Key file = this.upload("artipie_sample-0.2-py3-none-any.whl");
+        MatcherAssert.assertThat(
+            "File is verified",
+            this.verifier().verify(
+                new Key.From("artipie-sample"), "", file, UploadVerifierTest.form("0.2")
+            ).toCompletableFuture().join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Record refers to core metadata",
+            new FileRecords(this.asto).get(file).toCompletableFuture().join()
+                .metadata().isPresent(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Core metadata is saved",
+            this.asto.exists(CoreMetadata.key(file)).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void replacesRequiresPythonOfFormWithArchiveOne() {
+        final Key file = new Key.From("alarmtime", "alarmtime-0.1.5.tar.gz");
+        final byte[] bytes = new TestResource("pypi_repo/alarmtime-0.1.5.tar.gz").asBytes();
+        this.asto.save(file, new Content.From(bytes)).join();
+        new FileRecords(this.asto).save(
+            file, new FileRecord("abc", bytes.length).withRequiresPython(">=3.8")
+        ).toCompletableFuture().join();
+        final UploadForm form = new UploadForm();
+        form.put("name", "alarmtime");
+        form.put("version", "0.1.5");
+        form.put("requires_python", ">=3.8");
+        this.verifier().verify(new Key.From("alarmtime"), "", file, form.info().get())
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new FileRecords(this.asto).get(file).toCompletableFuture().join().requiresPython()
+                .isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void removesFileNotMatchingForm() {
+        final Key file = this.upload("artipie-sample-0.2.tar.gz");
+        MatcherAssert.assertThat(
+            "File is not verified",
+            this.verifier().verify(
+                new Key.From("artipie-sample"), "", file, UploadVerifierTest.form("0.3")
+            ).toCompletableFuture().join(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "File is removed",
+            this.asto.exists(file).join(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Record is removed",
+            this.asto.exists(new MetaKey(file, ".json")).join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void unlistsProjectWithoutFiles() {
+        final Key file = this.upload("artipie-sample-0.2.tar.gz");
+        final Projects projects = new Projects(this.asto, Key.ROOT);
+        projects.add("artipie-sample").toCompletableFuture().join();
+        projects.add("alarmtime").toCompletableFuture().join();
+        this.verifier().verify(
+            new Key.From("artipie-sample"), "", file, UploadVerifierTest.form("0.3")
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            projects.names().toCompletableFuture().join(),
+            Matchers.contains("alarmtime")
+        );
+    }
+
+    @Test
+    void keepsProjectWithOtherFiles() {
+        this.upload("artipie_sample-0.2-py3-none-any.whl");
+        final Key file = this.upload("artipie-sample-0.2.tar.gz");
+        final Projects projects = new Projects(this.asto, Key.ROOT);
+        projects.add("artipie-sample").toCompletableFuture().join();
+        this.verifier().verify(
+            new Key.From("artipie-sample"), "", file, UploadVerifierTest.form("0.3")
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            projects.names().toCompletableFuture().join(),
+            Matchers.contains("artipie-sample")
+        );
+    }
+
+    private UploadVerifier verifier() {
+        final IndexCache cache = new IndexCache();
+        return new UploadVerifier(
+            this.asto, cache, new IndexQueue(this.asto, cache), new MetadataParsers()
+        );
+    }
+
+    private Key upload(final String name) {
+        final Key file = new Key.From("artipie-sample", name);
+        final byte[] bytes = new TestResource(String.format("pypi_repo/%s", name)).asBytes();
+        this.asto.save(file, new Content.From(bytes)).join();
+        new FileRecords(this.asto).save(file, new FileRecord("abc", bytes.length))
+            .toCompletableFuture().join();
+        return file;
+    }
+
+    private static PackageInfo form(final String version) {
+        final UploadForm form = new UploadForm();
+        form.put("name", "artipie-sample");
+        form.put("version", version);
+        return form.info().get();
+    }
+}
@@ -11,19 +11,35 @@ import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.asto.test.TestResource;
 import com.artipie.http.Headers;
+import com.artipie.http.Slice;
 import com.artipie.http.headers.ContentType;
+import com.artipie.http.hm.IsString;
+import com.artipie.http.hm.RsHasBody;
 import com.artipie.http.hm.RsHasStatus;
 import com.artipie.http.hm.SliceHasResponse;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rq.RqMethod;
 import com.artipie.http.rs.RsStatus;
+import com.artipie.pypi.meta.CoreMetadata;
+import com.artipie.pypi.meta.FileRecords;
+import com.artipie.pypi.meta.MetaKey;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.collection.IsEmptyCollection;
 import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -71,6 +87,34 @@ class WheelSliceTest {
         );
     }
 
+    @Test
+    void recordsRequiresPython() throws IOException {
+        final String boundary = "python boundary";
+        final String filename = "artipie_sample-0.2-py3-none-any.whl";
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(this.asto),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        new TestResource(String.format("pypi_repo/%s", filename)).asBytes(),
+                        boundary, filename
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Renders requires python on project page",
+            this.page(new Key.From("artipie-sample")),
+            new StringContains("data-requires-python=\"&gt;=3.5, &lt;4\"")
+        );
+    }
+
     @Test
     void savesContentByNormalizedNameAndReturnsOk() throws IOException {
         final String boundary = "my boundary";
@@ -97,6 +141,185 @@ class WheelSliceTest {
             ).bytes().toCompletableFuture().join(),
             new IsEqual<>(body)
         );
+        MatcherAssert.assertThat(
+            "Saves file record with digest",
+            new PublisherAs(
+                this.asto.value(new Key.From(".pypi", path, "abtests", filename + ".json"))
+                    .join()
+            ).asciiString().toCompletableFuture().join(),
+            new StringContains(DigestUtils.sha256Hex(body))
+        );
+        MatcherAssert.assertThat(
+            "Renders project index page",
+            this.page(new Key.From(path, "abtests")),
+            new StringContains(String.format("/%s/abtests/%s", path, filename))
+        );
+        MatcherAssert.assertThat(
+            "Saves core metadata file",
+            new PublisherAs(
+                this.asto.value(
+                    new Key.From(".pypi", path, "abtests", filename + ".metadata")
+                ).join()
+            ).asciiString().toCompletableFuture().join(),
+            new StringContains("Name: ABtests")
+        );
+        MatcherAssert.assertThat(
+            "Advertises core metadata on the page",
+            this.page(new Key.From(path, "abtests")),
+            new StringContains("data-core-metadata=\"sha256=")
+        );
+    }
+
+    @Test
+    void invalidatesCachedIndexPages() throws IOException {
+        final String boundary = "cached boundary";
+        final String filename = "ABtests-0.0.2.1-py2.py3-none-any.whl";
+        final IndexCache cache = new IndexCache();
+        final Slice index = new SliceIndex(this.asto, cache);
+        MatcherAssert.assertThat(
+            "Caches empty project page",
+            index,
+            new SliceHasResponse(
+                new RsHasBody(new IsString(new IsNot<>(new StringContains(filename)))),
+                new RequestLine(RqMethod.GET, "/abtests/")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(this.asto, cache),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        new TestResource("pypi_repo/ABtests-0.0.2.1-py2.py3-none-any.whl")
+                            .asBytes(),
+                        boundary, filename
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Returns project page with uploaded file",
+            index,
+            new SliceHasResponse(
+                new RsHasBody(new IsString(new StringContains(filename))),
+                new RequestLine(RqMethod.GET, "/abtests/")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Returns root page with uploaded project",
+            index,
+            new SliceHasResponse(
+                new RsHasBody(new IsString(new StringContains("abtests"))),
+                new RequestLine(RqMethod.GET, "/")
+            )
+        );
+    }
+
+    @Test
+    void publishesUploadedPackage() throws IOException {
+        final String boundary = "simple boundary";
+        final String filename = "artipie-sample-0.2.tar";
+        final SearchQuery query = new SearchQuery(
+            Collections.singletonMap("name", Collections.singletonList("artipie")), "and"
+        );
+        final SearchIndex index = new SearchIndex(this.asto);
+        index.search(query).toCompletableFuture().join();
+        final Catalog catalog = new Catalog(this.asto);
+        this.asto.save(new Key.From("abc", "abc-0.1.tar.gz"), Content.EMPTY).join();
+        catalog.names().toCompletableFuture().join();
+        catalog.versions("artipie-sample").toCompletableFuture().join();
+        final Changelog changelog = new Changelog(this.asto);
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(
+                this.asto, new IndexCache(), false, index, catalog, changelog,
+                new MetadataParsers()
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        new TestResource("pypi_repo/artipie-sample-0.2.tar").asBytes(),
+                        boundary, filename
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Adds package to search index",
+            index.search(query).toCompletableFuture().join().stream()
+                .map(SearchIndex.Entry::version).collect(Collectors.toList()),
+            Matchers.contains("0.2")
+        );
+        MatcherAssert.assertThat(
+            "Lists file in catalog",
+            catalog.release("artipie-sample", "0.2").toCompletableFuture()
+                .join().get().files().get(0).filename(),
+            new IsEqual<>(filename)
+        );
+        MatcherAssert.assertThat(
+            "Adds project to catalog",
+            catalog.names().toCompletableFuture().join(),
+            Matchers.contains("abc", "artipie-sample")
+        );
+        MatcherAssert.assertThat(
+            "Appends upload to changelog",
+            changelog.since(0L).toCompletableFuture().join().get(0).action(),
+            new IsEqual<>(String.format("add source file %s", filename))
+        );
+    }
+
+    @Test
+    void returnsCreatedIfChangelogFails() throws IOException {
+        final String boundary = "changelog boundary";
+        final String filename = "artipie-sample-0.2.tar";
+        final Storage failing = new Storage.Wrap(this.asto) {
+            @Override
+            public CompletableFuture<Void> save(final Key key, final Content content) {
+                final CompletableFuture<Void> res;
+                if (key.string().startsWith(".pypi/.changelog")) {
+                    res = new CompletableFuture<>();
+                    res.completeExceptionally(new IllegalStateException("changelog failed"));
+                } else {
+                    res = super.save(key, content);
+                }
+                return res;
+            }
+        };
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(
+                this.asto, new IndexCache(), false, new SearchIndex(this.asto),
+                new Catalog(this.asto), new Changelog(failing), new MetadataParsers()
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        new TestResource(String.format("pypi_repo/%s", filename)).asBytes(),
+                        boundary, filename
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Keeps uploaded file",
+            this.asto.exists(new Key.From("artipie-sample", filename)).join(),
+            new IsEqual<>(true)
+        );
     }
 
     @Test
@@ -125,12 +348,11 @@ class WheelSliceTest {
 
     @Test
     void returnsBadRequestIfFileInvalid() throws IOException {
-        final Storage storage = new InMemoryStorage();
         final String boundary = RandomStringUtils.random(10);
         final String filename = "myproject.whl";
         final byte[] body = "some code".getBytes();
         MatcherAssert.assertThat(
-            new WheelSlice(storage),
+            new WheelSlice(this.asto),
             new SliceHasResponse(
                 new RsHasStatus(RsStatus.BAD_REQUEST),
                 new RequestLine(RqMethod.POST, "/"),
@@ -140,6 +362,250 @@ class WheelSliceTest {
                 new Content.From(this.multipartBody(body, boundary, filename))
             )
         );
+        MatcherAssert.assertThat(
+            "Storage is empty",
+            this.asto.list(Key.ROOT).join(),
+            new IsEmptyCollection<>()
+        );
+    }
+
+    @Test
+    void doesNotReadUploadedFileBack() throws IOException {
+        final String boundary = "read boundary";
+        final String filename = "artipie-sample-0.2.tar.gz";
+        final List<Key> read = new CopyOnWriteArrayList<>();
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(
+                new Storage.Wrap(this.asto) {
+                    @Override
+                    public CompletableFuture<Content> value(final Key key) {
+                        read.add(key);
+                        return super.value(key);
+                    }
+                }
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        new TestResource(String.format("pypi_repo/%s", filename)).asBytes(),
+                        boundary, filename
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            read.stream().filter(key -> !MetaKey.hidden(key)).collect(Collectors.toList()),
+            new IsEmptyCollection<>()
+        );
+    }
+
+    @Test
+    void rejectsUploadWithWrongDigest() throws IOException {
+        final String boundary = "md5 boundary";
+        final String filename = "artipie-sample-0.2.tar";
+        final byte[] body = new TestResource(String.format("pypi_repo/%s", filename)).asBytes();
+        MatcherAssert.assertThat(
+            "Returns BAD_REQUEST status",
+            new WheelSlice(this.asto),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        body, boundary, filename,
+                        "sha256_digest", DigestUtils.sha256Hex(body),
+                        "md5_digest", DigestUtils.md5Hex("abc")
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Storage is empty",
+            this.asto.list(Key.ROOT).join(),
+            new IsEmptyCollection<>()
+        );
+    }
+
+    @Test
+    void recordsUploadDigests() throws IOException {
+        final String boundary = "hashes boundary";
+        final String filename = "artipie-sample-0.2.tar";
+        final byte[] body = new TestResource(String.format("pypi_repo/%s", filename)).asBytes();
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(this.asto),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        body, boundary, filename, "md5_digest", DigestUtils.md5Hex(body)
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            new FileRecords(this.asto).get(new Key.From("artipie-sample", filename))
+                .toCompletableFuture().join().hashes().keySet(),
+            Matchers.contains("sha256", "blake2_256", "md5")
+        );
+    }
+
+    @Test
+    void returnsConflictIfFileExists() throws IOException {
+        final String boundary = "conflict boundary";
+        final String filename = "artipie-sample-0.2.tar";
+        final Key existing = new Key.From("artipie-sample", filename);
+        this.asto.save(existing, new Content.From("existing".getBytes())).join();
+        MatcherAssert.assertThat(
+            "Returns CONFLICT status",
+            new WheelSlice(this.asto),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CONFLICT),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        new TestResource(String.format("pypi_repo/%s", filename)).asBytes(),
+                        boundary, filename
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Existing file is kept",
+            this.asto.list(Key.ROOT).join(),
+            Matchers.contains(existing)
+        );
+    }
+
+    @Test
+    void releasesLocksOfRejectedUploadWithTwoFiles() throws IOException {
+        final String boundary = "two files boundary";
+        final String first = "artipie-sample-0.2.tar";
+        final byte[] bytes = new TestResource(String.format("pypi_repo/%s", first)).asBytes();
+        final byte[] single = this.multipartBody(bytes, boundary, first);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(Arrays.copyOf(single, single.length - 2));
+        body.write(
+            String.join(
+                "\r\n",
+                "",
+                "Content-Disposition: form-data; name=\"content\"; filename=\"other-0.1.tar\"",
+                "",
+                "other"
+            ).getBytes(StandardCharsets.US_ASCII)
+        );
+        body.write(String.format("\r\n--%s--", boundary).getBytes(StandardCharsets.US_ASCII));
+        final WheelSlice slice = new WheelSlice(this.asto);
+        final Headers headers = new Headers.From(
+            new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+        );
+        MatcherAssert.assertThat(
+            "Returns BAD_REQUEST status",
+            slice,
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/"), headers,
+                new Content.From(body.toByteArray())
+            )
+        );
+        MatcherAssert.assertThat(
+            "Accepts the first file later",
+            slice,
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"), headers,
+                new Content.From(single)
+            )
+        );
+    }
+
+    @Test
+    void acceptsUploadByFormFieldsAndVerifiesItLater() throws Exception {
+        final String boundary = "form boundary";
+        final String filename = "artipie_sample-0.2-py3-none-any.whl";
+        final byte[] body = new TestResource(String.format("pypi_repo/%s", filename)).asBytes();
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(this.asto, new IndexCache(), true),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        body, boundary, filename,
+                        "name", "artipie-sample", "version", "0.2",
+                        "sha256_digest", DigestUtils.sha256Hex(body)
+                    )
+                )
+            )
+        );
+        final Key meta = CoreMetadata.key(new Key.From("artipie-sample", filename));
+        // @checkstyle MagicNumberCheck (1 line)
+        for (int attempt = 0; attempt < 50 && !this.asto.exists(meta).join(); ++attempt) {
+            // @checkstyle MagicNumberCheck (1 line)
+            Thread.sleep(100);
+        }
+        MatcherAssert.assertThat(
+            "Saves core metadata after verification",
+            this.asto.exists(meta).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void rejectsUploadByFormFieldsWithWrongDigest() throws IOException {
+        final String boundary = "digest boundary";
+        final String filename = "artipie-sample-0.2.tar.gz";
+        MatcherAssert.assertThat(
+            "Returns BAD_REQUEST status",
+            new WheelSlice(this.asto, new IndexCache(), true),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(
+                    new ContentType(String.format("multipart/form-data; boundary=\"%s\"", boundary))
+                ),
+                new Content.From(
+                    this.multipartBody(
+                        new TestResource(String.format("pypi_repo/%s", filename)).asBytes(),
+                        boundary, filename,
+                        "name", "artipie-sample", "version", "0.2",
+                        "sha256_digest", DigestUtils.sha256Hex("abc")
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Storage is empty",
+            this.asto.list(Key.ROOT).join(),
+            new IsEmptyCollection<>()
+        );
+    }
+
+    private String page(final Key project) {
+        return new IndexPage(this.asto, project, "")
+            .content(IndexFormat.HTML, PageEncoding.IDENTITY)
+            .thenCompose(content -> new PublisherAs(content.get()).asciiString())
+            .toCompletableFuture().join();
     }
 
     private byte[] multipartBody(final byte[] input, final String boundary, final String filename)
@@ -168,4 +634,35 @@ class WheelSliceTest {
         return body.toByteArray();
     }
 
+    private byte[] multipartBody(final byte[] input, final String boundary,
+        final String filename, final String... fields) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (int idx = 0; idx < fields.length; idx += 2) {
+            body.write(
+                String.join(
+                    "\r\n",
+                    String.format("--%s", boundary),
+                    String.format("Content-Disposition: form-data; name=\"%s\"", fields[idx]),
+                    "",
+                    fields[idx + 1],
+                    ""
+                ).getBytes(StandardCharsets.US_ASCII)
+            );
+        }
+        body.write(
+            String.join(
+                "\r\n",
+                String.format("--%s", boundary),
+                String.format(
+                    "Content-Disposition: form-data; name=\"content\"; filename=\"%s\"",
+                    filename
+                ),
+                "",
+                ""
+            ).getBytes(StandardCharsets.US_ASCII)
+        );
+        body.write(input);
+        body.write(String.format("\r\n--%s--", boundary).getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.util.Arrays;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link DistFilename}.
+ * @since 1.0
+ * @checkstyle ParameterNumberCheck (500 lines)
+ */
+class DistFilenameTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "artipie_sample-0.2-py3-none-any.whl,artipie_sample,0.2,,py3,none,any",
+        "ABtests-0.0.2.1-py2.py3-none-any.whl,ABtests,0.0.2.1,,py2.py3,none,any",
+        "numpy-1.24.2-cp39-cp39-manylinux_2_17_x86_64.whl,numpy,1.24.2,,cp39,cp39,"
+            + "manylinux_2_17_x86_64",
+        "my_pkg-1.0-2-py3-none-any.whl,my_pkg,1.0,2,py3,none,any",
+        "my_pkg-1.0-1abc_Z-py3-none-any.whl,my_pkg,1.0,1abc_Z,py3,none,any",
+        "very-difficult-project-1.0a2-py3-any-none.whl,very-difficult-project,1.0a2,,py3,any,none",
+        "artipie_sample-2.1-py3.7.egg,artipie_sample,2.1,,py3.7,,",
+        "artipie-sample-0.2.tar.gz,artipie-sample,0.2,,,,",
+        "Another_project-123.93.zip,Another_project,123.93,,,,",
+        "artipie-sample-2.1.tar.Z,artipie-sample,2.1,,,,"
+    })
+    void parsesNames(final String filename, final String name, final String version,
+        final String build, final String python, final String abi, final String platform) {
+        final DistFilename dist = new DistFilename(filename);
+        MatcherAssert.assertThat(
+            Arrays.asList(
+                dist.name(), dist.version(), dist.build().orElse(null),
+                dist.python().orElse(null), dist.abi().orElse(null),
+                dist.platform().orElse(null)
+            ),
+            new IsEqual<List<String>>(Arrays.asList(name, version, build, python, abi, platform))
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "readme.txt", "abc.tar.gz", "-0.1.tar.gz", "abc-.zip", "abc-0.1-py3-none.whl",
+        "abc-0.1-py3--any.whl", "abc-0.1.rar"
+    })
+    void rejectsInvalidNames(final String filename) {
+        MatcherAssert.assertThat(
+            new DistFilename(filename).valid(),
+            new IsEqual<>(false)
+        );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link FileRecords}.
+ * @since 1.0
+ */
+class FileRecordsTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage asto;
+
+    @BeforeEach
+    void init() {
+        this.asto = new InMemoryStorage();
+    }
+
+    @Test
+    void readsSavedRecord() {
+        final Key file = new Key.From("my-project", "my_project-0.1.tar.gz");
+        this.asto.save(file, new Content.From("any".getBytes())).join();
+        new FileRecords(this.asto).save(file, new FileRecord("abc123", 3)).toCompletableFuture()
+            .join();
+        MatcherAssert.assertThat(
+            new FileRecords(this.asto).get(file).toCompletableFuture().join().sha256(),
+            new IsEqual<>("abc123")
+        );
+    }
+
+    @Test
+    void calculatesAndSavesAbsentRecord() {
+        final byte[] bytes = "python package".getBytes();
+        final Key file = new Key.From("abc", "abc-0.2.whl");
+        this.asto.save(file, new Content.From(bytes)).join();
+        final FileRecord rec = new FileRecords(this.asto).get(file).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Returns calculated digest",
+            rec.sha256(),
+            new IsEqual<>(DigestUtils.sha256Hex(bytes))
+        );
+        MatcherAssert.assertThat(
+            "Returns calculated size",
+            rec.size(),
+            new IsEqual<>((long) bytes.length)
+        );
+        MatcherAssert.assertThat(
+            "Saves record to storage",
+            this.asto.exists(new Key.From(".pypi/abc/abc-0.2.whl.json")).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void doesNotCalculateAbsentStoredRecord() {
+        final Key file = new Key.From("abc", "abc-0.3.tar.gz");
+        this.asto.save(file, new Content.From("legacy package".getBytes())).join();
+        MatcherAssert.assertThat(
+            "Returns no record",
+            new FileRecords(this.asto).stored(file).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Does not save record",
+            this.asto.exists(new Key.From(".pypi/abc/abc-0.3.tar.gz.json")).join(),
+            new IsEqual<>(false)
+        );
+    }
+}
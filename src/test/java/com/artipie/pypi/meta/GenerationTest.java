@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Generation}.
+ * @since 1.0
+ */
+class GenerationTest {
+
+    @Test
+    void startsFromZero() {
+        MatcherAssert.assertThat(
+            new Generation(new InMemoryStorage(), new Key.From("abc")).value()
+                .toCompletableFuture().join(),
+            new IsEqual<>(0L)
+        );
+    }
+
+    @Test
+    void increases() {
+        final Generation gen = new Generation(new InMemoryStorage(), new Key.From("def"));
+        gen.next().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Returns increased value",
+            gen.next().toCompletableFuture().join(),
+            new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            "Keeps increased value",
+            gen.value().toCompletableFuture().join(),
+            new IsEqual<>(2L)
+        );
+    }
+
+    @Test
+    void increasesConcurrentChangesOneAfterAnother() {
+        final Storage asto = new InMemoryStorage();
+        final Key project = new Key.From("ghi");
+        final List<Long> values = IntStream.range(0, 50).parallel().mapToObj(
+            idx -> new Generation(asto, project).next().toCompletableFuture()
+        ).collect(Collectors.toList()).stream()
+            .map(CompletableFuture::join).sorted().collect(Collectors.toList());
+        MatcherAssert.assertThat(
+            "Returns distinct values",
+            values,
+            new IsEqual<>(LongStream.rangeClosed(1, 50).boxed().collect(Collectors.toList()))
+        );
+        MatcherAssert.assertThat(
+            "Keeps the last value",
+            new Generation(asto, project).value().toCompletableFuture().join(),
+            new IsEqual<>(50L)
+        );
+    }
+
+    @Test
+    void doesNotWaitForIncreaseInOtherStorage() throws Exception {
+        final Key project = new Key.From("jkl");
+        new Generation(
+            new Storage.Wrap(new InMemoryStorage()) {
+                @Override
+                public CompletableFuture<Void> save(final Key key, final Content content) {
+                    return new CompletableFuture<>();
+                }
+            },
+            project
+        ).next();
+        MatcherAssert.assertThat(
+            new Generation(new InMemoryStorage(), project).next().toCompletableFuture()
+                .get(1, TimeUnit.MINUTES),
+            new IsEqual<>(1L)
+        );
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Key;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link MetaKey}.
+ * @since 1.0
+ */
+class MetaKeyTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "abc/abc-0.1.whl,.json,.pypi/abc/abc-0.1.whl.json",
+        "repo/abc,'',.pypi/repo/abc"
+    })
+    void buildsKey(final String item, final String ext, final String res) {
+        MatcherAssert.assertThat(
+            new MetaKey(new Key.From(item), ext).string(),
+            new IsEqual<>(res)
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        ".pypi/abc/abc-0.1.whl.json,true",
+        "abc/.pypi,false",
+        "abc/abc-0.1.whl,false"
+    })
+    void checksHidden(final String key, final boolean res) {
+        MatcherAssert.assertThat(
+            MetaKey.hidden(new Key.From(key)),
+            new IsEqual<>(res)
+        );
+    }
+}
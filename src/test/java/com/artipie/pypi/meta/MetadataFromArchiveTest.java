@@ -6,6 +6,13 @@ package com.artipie.pypi.meta;
 
 import com.artipie.asto.test.TestResource;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.lang3.StringUtils;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Assertions;
@@ -48,4 +55,55 @@ class MetadataFromArchiveTest {
         );
     }
 
+    @Test
+    void prefersTopLevelPkgInfo() throws IOException {
+        MatcherAssert.assertThat(
+            new Metadata.FromArchive(
+                new ByteArrayInputStream(
+                    MetadataFromArchiveTest.tar(
+                        "abc-0.1/src/nested.egg-info/PKG-INFO", "Name: nested\n",
+                        "abc-0.1/PKG-INFO", "Name: abc\n",
+                        "abc-0.1/src/other.egg-info/PKG-INFO", "Name: other\n"
+                    )
+                ),
+                "abc-0.1.tar"
+            ).read().name(),
+            new IsEqual<>("abc")
+        );
+    }
+
+    @Test
+    void stopsAtTopLevelPkgInfo() throws IOException {
+        final byte[] tar = MetadataFromArchiveTest.tar(
+            "abc-0.1/PKG-INFO", "Name: abc\n",
+            "abc-0.1/setup.py", StringUtils.repeat("# comment\n", 1000)
+        );
+        MatcherAssert.assertThat(
+            new Metadata.FromArchive(
+                new ByteArrayInputStream(Arrays.copyOf(tar, tar.length / 2)), "abc-0.1.tar"
+            ).read().name(),
+            new IsEqual<>("abc")
+        );
+    }
+
+    /**
+     * Tar archive.
+     * @param entries Entries names and contents
+     * @return Archive bytes
+     * @throws IOException On error
+     */
+    private static byte[] tar(final String... entries) throws IOException {
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(res)) {
+            for (int idx = 0; idx < entries.length; idx = idx + 2) {
+                final byte[] bytes = entries[idx + 1].getBytes(StandardCharsets.UTF_8);
+                final TarArchiveEntry entry = new TarArchiveEntry(entries[idx]);
+                entry.setSize(bytes.length);
+                tar.putArchiveEntry(entry);
+                tar.write(bytes);
+                tar.closeArchiveEntry();
+            }
+        }
+        return res.toByteArray();
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MetadataHeaders}.
+ * @since 1.0
+ */
+class MetadataHeadersTest {
+
+    @Test
+    void readsRepeatedHeaders() {
+        MatcherAssert.assertThat(
+            new MetadataHeaders(
+                String.join(
+                    "\n",
+                    "Metadata-Version: 2.1",
+                    "Name: abc",
+                    "Classifier: Programming Language :: Python",
+                    "Requires-Dist: requests (>=2.0)",
+                    "Classifier: License :: OSI Approved :: MIT License",
+                    ""
+                )
+            ).all("classifier"),
+            Matchers.contains(
+                "Programming Language :: Python", "License :: OSI Approved :: MIT License"
+            )
+        );
+    }
+
+    @Test
+    void readsContinuationLines() {
+        MatcherAssert.assertThat(
+            new MetadataHeaders(
+                String.join(
+                    "\r\n",
+                    "Name: abc",
+                    "Description: first line",
+                    "        |second line",
+                    "Version: 0.1",
+                    ""
+                )
+            ).first("Description"),
+            new IsEqual<>(Optional.of("first line\n        |second line"))
+        );
+    }
+
+    @Test
+    void readsBody() {
+        final MetadataHeaders headers = new MetadataHeaders(
+            String.join("\n", "Name: abc", "Version: 0.1", "", "Version: in body", "text")
+        );
+        MatcherAssert.assertThat(
+            "Reads headers before body only",
+            headers.all("Version"),
+            Matchers.contains("0.1")
+        );
+        MatcherAssert.assertThat(
+            "Reads body",
+            headers.body(),
+            new IsEqual<>("Version: in body\ntext")
+        );
+    }
+
+    @Test
+    void returnsEmptyForAbsentHeader() {
+        MatcherAssert.assertThat(
+            new MetadataHeaders("Name: abc").first("Summary").isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+}
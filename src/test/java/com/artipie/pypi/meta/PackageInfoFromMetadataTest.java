@@ -4,8 +4,10 @@
  */
 package com.artipie.pypi.meta;
 
+import java.util.Optional;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -36,6 +38,24 @@ class PackageInfoFromMetadataTest {
         );
     }
 
+    @Test
+    void readsRequiresPython() {
+        MatcherAssert.assertThat(
+            new PackageInfo.FromMetadata(
+                String.join("\n", "Name: abc", "Requires-Python: >=3.8, <4", "")
+            ).requiresPython(),
+            new IsEqual<>(Optional.of(">=3.8, <4"))
+        );
+    }
+
+    @Test
+    void readsAbsentRequiresPython() {
+        MatcherAssert.assertThat(
+            new PackageInfo.FromMetadata("Name: abc\n").requiresPython().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
     @Test
     void throwsExceptionIfNameNotFound() {
         Assertions.assertThrows(
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Projects}.
+ * @since 1.0
+ */
+class ProjectsTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage asto;
+
+    @BeforeEach
+    void init() {
+        this.asto = new InMemoryStorage();
+    }
+
+    @Test
+    void findsProjectsInRepository() {
+        this.asto.save(new Key.From("repo/def/def-0.1.whl"), Content.EMPTY).join();
+        this.asto.save(new Key.From("repo/abc/abc-0.1.whl"), Content.EMPTY).join();
+        this.asto.save(new Key.From("repo/file.txt"), Content.EMPTY).join();
+        this.asto.save(new Key.From(".pypi/repo/abc/abc-0.1.whl.json"), Content.EMPTY).join();
+        this.asto.save(new Key.From("other/ghi/ghi-0.1.whl"), Content.EMPTY).join();
+        MatcherAssert.assertThat(
+            new Projects(this.asto, new Key.From("repo")).names().toCompletableFuture().join(),
+            Matchers.contains("abc", "def")
+        );
+    }
+
+    @Test
+    void addsProjects() {
+        this.asto.save(new Key.From("abc/abc-0.1.whl"), Content.EMPTY).join();
+        final Projects projects = new Projects(this.asto, Key.ROOT);
+        projects.add("xyz").toCompletableFuture().join();
+        projects.add("klm").toCompletableFuture().join();
+        this.asto.save(new Key.From("def/def-0.1.whl"), Content.EMPTY).join();
+        MatcherAssert.assertThat(
+            projects.names().toCompletableFuture().join(),
+            Matchers.contains("abc", "klm", "xyz")
+        );
+    }
+
+    @Test
+    void readsDisplayNames() {
+        this.asto.save(new Key.From("abc/abc-0.1.whl"), Content.EMPTY).join();
+        final Projects projects = new Projects(this.asto, Key.ROOT);
+        projects.add("alarmtime", "AlarmTime").toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            projects.displayNames().toCompletableFuture().join().values(),
+            Matchers.contains("abc", "AlarmTime")
+        );
+    }
+
+    @Test
+    void listsRepositoryOnce() {
+        final AtomicInteger lists = new AtomicInteger();
+        final Projects projects = new Projects(
+            new Storage.Wrap(this.asto) {
+                @Override
+                public CompletableFuture<Collection<Key>> list(final Key prefix) {
+                    if (prefix.equals(Key.ROOT)) {
+                        lists.incrementAndGet();
+                    }
+                    return super.list(prefix);
+                }
+            },
+            Key.ROOT
+        );
+        projects.names().toCompletableFuture().join();
+        projects.names().toCompletableFuture().join();
+        projects.add("abc").toCompletableFuture().join();
+        projects.add("def").toCompletableFuture().join();
+        MatcherAssert.assertThat(lists.get(), new IsEqual<>(1));
+    }
+
+    @Test
+    void keepsDisplayNameOfRegisteredProject() {
+        final Projects projects = new Projects(this.asto, Key.ROOT);
+        projects.add("alarmtime", "AlarmTime").toCompletableFuture().join();
+        projects.add("alarmtime", "alarmtime").toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            projects.displayNames().toCompletableFuture().join().values(),
+            Matchers.contains("AlarmTime")
+        );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link Version}.
+ * @since 1.0
+ */
+class VersionTest {
+
+    @Test
+    void sortsVersions() {
+        final List<String> sorted = Arrays.asList(
+            "0.9", "1.0.dev456", "1.0a1", "1.0a2.dev456", "1.0a12.dev456", "1.0a12",
+            "1.0b1.dev456", "1.0b2", "1.0b2.post345.dev456", "1.0b2.post345", "1.0rc1.dev456",
+            "1.0rc1", "1.0", "1.0+abc.5", "1.0+abc.7", "1.0+5", "1.0.post456.dev34",
+            "1.0.post456", "1.1.dev1", "1.9", "1.10", "1!0.1"
+        );
+        final List<String> shuffled = new ArrayList<>(sorted);
+        Collections.reverse(shuffled);
+        MatcherAssert.assertThat(
+            shuffled.stream().map(Version::new).sorted().map(Version::toString)
+                .collect(Collectors.toList()),
+            new IsEqual<>(sorted)
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "1.0,1.0.0",
+        "1.0RC1,1.0rc1",
+        "1.0-alpha-2,1.0a2",
+        "v1.0,1.0",
+        "1.0-1,1.0.post1",
+        "1.0.dev,1.0.dev0",
+        "1.0c1,1.0rc1",
+        "1.0+01,1.0+1",
+        "1.0+ubuntu.007,1.0+ubuntu-7"
+    })
+    void comparesNormalizedVersionsAsEqual(final String first, final String second) {
+        MatcherAssert.assertThat(
+            "Versions are equal",
+            new Version(first),
+            new IsEqual<>(new Version(second))
+        );
+        MatcherAssert.assertThat(
+            "Hash codes are equal",
+            new Version(first).hashCode(),
+            new IsEqual<>(new Version(second).hashCode())
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "1.0+", "1.0.", "1..0", "1.0-", "1.0+a..b"})
+    void detectsInvalidVersions(final String version) {
+        MatcherAssert.assertThat(
+            new Version(version).valid(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void sortsInvalidVersionsFirst() {
+        MatcherAssert.assertThat(
+            new Version("unknown").compareTo(new Version("0.0.1")),
+            new IsEqual<>(-1)
+        );
+    }
+}